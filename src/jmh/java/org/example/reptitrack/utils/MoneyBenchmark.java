@@ -0,0 +1,69 @@
+package org.example.reptitrack.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares totalling a cart in {@link Money} cents with the double arithmetic
+ * checkout used before it: a running {@code double} subtotal, tax as
+ * {@code subtotal * 0.13}, and cash rounding as {@code Math.round(total * 20.0) / 20.0}.
+ * <p>
+ * Run with {@code ./gradlew jmh}; it is not part of {@code ./gradlew test}.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final double TAX_RATE = 0.13;
+    private static final int TAX_BASIS_POINTS = 1300;
+
+    @Param({"10", "1000"})
+    private int lines;
+
+    private double[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        prices = new double[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = (i % 5000) / 100.0 + 0.05;
+            quantities[i] = 1 + i % 4;
+        }
+    }
+
+    /**
+     * The previous checkout: double subtotal, tax on the cart, cash rounding.
+     */
+    @Benchmark
+    public double doubleTotal() {
+        double subtotal = 0;
+        for (int i = 0; i < prices.length; i++) {
+            subtotal += prices[i] * quantities[i];
+        }
+        double total = subtotal + subtotal * TAX_RATE;
+        return Math.round(total * 20.0) / 20.0;
+    }
+
+    /**
+     * The current checkout: cents per line, tax per line, cash rounding to the nickel.
+     */
+    @Benchmark
+    public long centsTotal() {
+        long subtotal = 0;
+        long tax = 0;
+        for (int i = 0; i < prices.length; i++) {
+            long line = Money.times(Money.ofDollars(prices[i]), quantities[i]);
+            subtotal += line;
+            tax += Money.percentOf(line, TAX_BASIS_POINTS);
+        }
+        return Money.roundToNickel(subtotal + tax);
+    }
+}
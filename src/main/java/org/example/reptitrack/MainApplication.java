@@ -5,6 +5,11 @@ import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.stage.Stage;
 import org.example.reptitrack.dao.DatabaseConnection;
+import org.example.reptitrack.services.AsyncDataService;
+import org.example.reptitrack.services.CartService;
+import org.example.reptitrack.services.SalesLedger;
+import org.example.reptitrack.services.StockReservations;
+import org.example.reptitrack.views.AdminTerminalView;
 import org.example.reptitrack.views.CategoriesView;
 import org.example.reptitrack.views.CheckoutView;
 import org.example.reptitrack.views.LoginView;
@@ -41,6 +46,9 @@ public class MainApplication extends Application {
             System.err.println("❌ Database connection failed: " + e.getMessage());
         }
 
+        // Start the ledger writer, which re-sends sales spilled by a previous run
+        SalesLedger.getInstance();
+
         try {
             Scene loginScene = LoginView.createLoginScene(stage);
             primaryStage.setScene(loginScene);
@@ -60,12 +68,26 @@ public class MainApplication extends Application {
         }
     }
 
+    /**
+     * Flushes the cart journal and sales ledger and stops the stock reservation
+     * thread, then releases pooled database connections when the application closes.
+     */
+    @Override
+    public void stop() {
+        CartService.getInstance().close();
+        SalesLedger.getInstance().close();
+        StockReservations.getInstance().close();
+        DatabaseConnection.shutdown();
+    }
+
     /**
      * Switches the current view to the one specified by its string identifier.
+     * Background loads still running for the previous view are cancelled first.
      *
-     * @param viewName The name of the view to load (e.g. "MainDashboard", "Categories", "Checkout")
+     * @param viewName The name of the view to load (e.g. "MainDashboard", "Categories", "Checkout", "AdminTerminal")
      */
     public static void setRoot(String viewName) {
+        AsyncDataService.cancelPending();
         try {
             Scene newScene = switchScene(viewName);
             primaryStage.setScene(newScene);
@@ -86,6 +108,7 @@ public class MainApplication extends Application {
             case "MainDashboard" -> MainDashboardView.createMainScene(primaryStage);
             case "Categories"    -> CategoriesView.createCategoriesScene(primaryStage);
             case "Checkout"      -> CheckoutView.createCheckoutScene(primaryStage);
+            case "AdminTerminal" -> AdminTerminalView.createAdminScene(primaryStage);
             default              -> throw new IllegalArgumentException("Unknown view: " + viewName);
         };
     }
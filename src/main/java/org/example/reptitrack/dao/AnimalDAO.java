@@ -5,6 +5,7 @@ import org.example.reptitrack.models.Product;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * DAO class for managing records in the Animals table.
@@ -25,14 +26,14 @@ public class AnimalDAO {
     /**
      * Fetches all animals and joins with the Products table.
      *
-     * @return list of Product objects representing animals
+     * @return list of Product objects representing animals, or empty if the query failed
      */
-    public static List<Product> getAllAnimals() {
+    public static Optional<List<Product>> getAllAnimals() {
         List<Product> animals = new ArrayList<>();
 
         String sql = """
             SELECT a.animal_id, p.product_id, p.product_name, p.stock_quantity,
-                   p.supplier, p.price, p.min_stock_level
+                   p.supplier, p.price, p.min_stock_level, p.version
             FROM Animals a
             JOIN Products p ON a.product_id = p.product_id
         """;
@@ -42,7 +43,7 @@ public class AnimalDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                animals.add(new Product(
+                Product animal = new Product(
                         rs.getInt("product_id"),
                         rs.getString("product_name"),
                         "Animals",
@@ -50,14 +51,17 @@ public class AnimalDAO {
                         rs.getString("supplier"),
                         rs.getDouble("price"),
                         rs.getInt("min_stock_level")
-                ));
+                );
+                animal.setVersion(rs.getInt("version"));
+                animals.add(animal);
             }
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to fetch animals: " + e.getMessage());
+            return Optional.empty();
         }
 
-        return animals;
+        return Optional.of(animals);
     }
 
     // ───────────────────────────────────────────────────────
@@ -66,35 +70,14 @@ public class AnimalDAO {
 
     /**
      * Inserts a new animal into the Animals and Products tables.
+     * Delegates to {@link ProductRepository#insert(String, Product)}, which writes
+     * both rows in one transaction.
      *
      * @param product product object representing the animal
+     * @return generated product_id, or -1 if nothing was written
      */
-    public static void insertAnimal(Product product) {
-        int productId = ProductDAO.insertProductAndReturnId(product);
-
-        String sql = """
-            INSERT INTO Animals (product_name, category, stock_quantity, 
-                                 supplier, price, min_stock_level, product_id)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, productId);
-
-            stmt.executeUpdate();
-            System.out.println("✅ Animal added to Animals and Products (linked by product_id = " + productId + ")");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to insert animal: " + e.getMessage());
-        }
+    public static int insertAnimal(Product product) {
+        return ProductRepository.insert("Animals", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -103,36 +86,13 @@ public class AnimalDAO {
 
     /**
      * Updates an existing animal entry in both Animals and Products tables.
+     * Delegates to {@link ProductRepository#update(String, Product)}.
      *
      * @param product updated product object
+     * @return number of Products rows updated
      */
-    public static void updateAnimal(Product product) {
-        ProductDAO.updateProduct(product);
-
-        String sql = """
-            UPDATE Animals
-            SET product_name = ?, category = ?, stock_quantity = ?, 
-                supplier = ?, price = ?, min_stock_level = ?
-            WHERE product_id = ?
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, product.getId());
-
-            stmt.executeUpdate();
-            System.out.println("✅ Animal updated in Animals and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to update animal: " + e.getMessage());
-        }
+    public static int updateAnimal(Product product) {
+        return ProductRepository.update("Animals", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -141,23 +101,12 @@ public class AnimalDAO {
 
     /**
      * Deletes the specified animal from both the Animals and Products tables.
+     * Delegates to {@link ProductRepository#delete(String, int)}.
      *
      * @param productId the shared product_id to delete
+     * @return number of Products rows deleted
      */
-    public static void deleteAnimal(int productId) {
-        String sql = "DELETE FROM Animals WHERE product_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, productId);
-            stmt.executeUpdate();
-
-            ProductDAO.deleteProductById(productId);
-            System.out.println("🗑️ Animal deleted from Animals and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to delete animal: " + e.getMessage());
-        }
+    public static int deleteAnimal(int productId) {
+        return ProductRepository.delete("Animals", productId);
     }
 }
@@ -0,0 +1,187 @@
+package org.example.reptitrack.dao;
+
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.CatalogCache;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO class for committing a completed sale against inventory.
+ * <p>
+ * The whole cart is applied in a single transaction. The sold products are
+ * locked and checked against the units available to this terminal: on hand,
+ * less what other terminals have reserved (see {@link ReservationDAO}). If a
+ * line is short, for example because its reservation expired and another
+ * terminal took the units, the whole sale rolls back rather than overselling.
+ * Otherwise the terminal's reservation rows for the cart are used up and
+ * on-hand stock gets one batched relative decrement, as does each category
+ * table in the cart.
+ * </p>
+ * <p>
+ * Under the normalized schema, stock lives only in Products, so there are
+ * no category table updates.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class CheckoutDAO {
+
+    // ─────────────────────────────────────────────────────────────
+    // COMMIT SALE
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Sells every line in the cart inside one transaction, consuming the
+     * terminal's reservations for them. Each cart line's {@code stockQuantity}
+     * is the quantity being sold.
+     *
+     * @param terminalId the terminal whose reservations cover the cart
+     * @param cartItems  the cart lines to sell
+     * @return true if the sale was committed, false if it was rolled back
+     *         (including when a line is no longer in stock)
+     */
+    public static boolean commitSale(String terminalId, List<Product> cartItems) {
+        if (cartItems.isEmpty()) {
+            return true;
+        }
+
+        // Lock rows in a consistent order so two tills can never deadlock each other
+        List<Product> lines = new ArrayList<>(cartItems);
+        lines.sort(Comparator.comparingInt(Product::getId));
+
+        Map<String, List<Product>> linesByTable = new LinkedHashMap<>();
+        for (Product line : lines) {
+            String table = ProductRepository.isNormalizedSchema() ? null : categoryTable(line.getCategory());
+            if (table != null) {
+                linesByTable.computeIfAbsent(table, t -> new ArrayList<>()).add(line);
+            }
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                consumeReservations(conn, terminalId, lines);
+                decrementStock(conn, "Products", lines);
+                for (Map.Entry<String, List<Product>> entry : linesByTable.entrySet()) {
+                    decrementStock(conn, entry.getKey(), entry.getValue());
+                }
+
+                conn.commit();
+                for (Product line : lines) {
+                    CatalogCache.getInstance().adjustStock(line.getId(), -line.getStockQuantity());
+                }
+                System.out.println("✅ Sale committed: " + lines.size() + " line(s) in one transaction.");
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to commit sale, no stock was changed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks that every line is still available to this terminal and uses up
+     * the terminal's reservations for the sold lines.
+     *
+     * @throws SQLException if a line is not in stock, which rolls back the sale
+     */
+    private static void consumeReservations(Connection conn, String terminalId,
+                                            List<Product> lines) throws SQLException {
+        String selectSql = "SELECT product_id, quantity FROM StockReservations WHERE terminal_id = ? AND product_id IN ("
+                + String.join(", ", Collections.nCopies(lines.size(), "?")) + ") ORDER BY product_id FOR UPDATE";
+        String shrinkSql = "UPDATE StockReservations SET quantity = quantity - ? WHERE terminal_id = ? AND product_id = ?";
+        String deleteSql = "DELETE FROM StockReservations WHERE terminal_id = ? AND product_id = ?";
+
+        // Product rows are locked first, as in ReservationDAO.reserve
+        List<Integer> ids = lines.stream().map(Product::getId).toList();
+        Map<Integer, Integer> available = ReservationDAO.availableStock(conn, ids, terminalId, true);
+        for (Product line : lines) {
+            if (available.getOrDefault(line.getId(), 0) < line.getStockQuantity()) {
+                throw new SQLException("Not enough stock left for " + line.getProductName());
+            }
+        }
+
+        Map<Integer, Integer> reserved = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+            stmt.setString(1, terminalId);
+            for (int i = 0; i < lines.size(); i++) {
+                stmt.setInt(i + 2, lines.get(i).getId());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reserved.put(rs.getInt("product_id"), rs.getInt("quantity"));
+                }
+            }
+        }
+
+        try (PreparedStatement shrink = conn.prepareStatement(shrinkSql);
+             PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+
+            for (Product line : lines) {
+                int held = reserved.getOrDefault(line.getId(), 0);
+                int used = Math.min(held, line.getStockQuantity());
+
+                if (used > 0 && used == held) {
+                    delete.setString(1, terminalId);
+                    delete.setInt(2, line.getId());
+                    delete.addBatch();
+                } else if (used > 0) {
+                    shrink.setInt(1, used);
+                    shrink.setString(2, terminalId);
+                    shrink.setInt(3, line.getId());
+                    shrink.addBatch();
+                }
+            }
+            delete.executeBatch();
+            shrink.executeBatch();
+        }
+    }
+
+    /**
+     * Sends one batched relative decrement for the given lines against
+     * Products, or against a single category table (legacy schema copies of
+     * stock_quantity). Products rows also get a new version.
+     */
+    private static void decrementStock(Connection conn, String table, List<Product> lines) throws SQLException {
+        String sql = "Products".equals(table)
+                ? "UPDATE Products SET stock_quantity = stock_quantity - ?, version = version + 1 WHERE product_id = ?"
+                : "UPDATE " + table + " SET stock_quantity = GREATEST(stock_quantity - ?, 0) WHERE product_id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Product line : lines) {
+                stmt.setInt(1, line.getStockQuantity());
+                stmt.setInt(2, line.getId());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Maps a product category to its category table name.
+     *
+     * @param category the category name (e.g. "Animals")
+     * @return the table name, or null if the category has no table
+     */
+    private static String categoryTable(String category) {
+        try {
+            return ProductRepository.tableFor(category);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,818 @@
+package org.example.reptitrack.dao;
+
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of physical JDBC connections used behind {@link DatabaseConnection}.
+ * <p>
+ * Callers receive a lightweight handle whose {@code close()} returns the physical
+ * connection to the pool instead of closing it, so the existing
+ * try-with-resources blocks in the DAOs keep working unchanged.
+ * </p>
+ * <p>
+ * Features: min/max sizing, idle eviction, validation on borrow,
+ * leak detection and running statistics.
+ * </p>
+ * <p>
+ * Leak detection is off by default, because it captures a stack trace on
+ * every borrow. Set {@code DB_POOL_LEAK_THRESHOLD_MS} to turn it on while
+ * hunting a leak.
+ * </p>
+ * <p>
+ * Each physical connection also keeps an LRU cache of prepared statements
+ * keyed by SQL text. Calling {@code prepareStatement(sql)} again on the same
+ * physical connection reuses the already-prepared statement, and closing it
+ * returns it to the cache instead of deallocating it on the server.
+ * Everything a caller can change on a statement (parameters, batch, open
+ * result set, fetch size, row limits, timeout) is reset before it is reused.
+ * This is the only statement cache; the driver's own {@code cachePrepStmts}
+ * is left off.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class ConnectionPool {
+
+    /**
+     * Opens a new physical connection for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Configuration
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Pool sizing and timing settings, loaded from the .env file via {@link DatabaseConfig}.
+     */
+    public static final class Settings {
+        final int minSize;
+        final int maxSize;
+        final long maxWaitMs;
+        final long idleTimeoutMs;
+        final long validationIntervalMs;
+        final long leakThresholdMs;
+        final long housekeepingIntervalMs;
+        final int statementCacheSize;
+
+        public Settings(int minSize, int maxSize, long maxWaitMs, long idleTimeoutMs,
+                        long validationIntervalMs, long leakThresholdMs, long housekeepingIntervalMs,
+                        int statementCacheSize) {
+            if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+            }
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.maxWaitMs = maxWaitMs;
+            this.idleTimeoutMs = idleTimeoutMs;
+            this.validationIntervalMs = validationIntervalMs;
+            this.leakThresholdMs = leakThresholdMs;
+            this.housekeepingIntervalMs = housekeepingIntervalMs;
+            this.statementCacheSize = statementCacheSize;
+        }
+
+        /**
+         * Reads the DB_POOL_* keys from the .env file, falling back to sensible defaults.
+         * A leak threshold of 0 (the default) disables leak detection.
+         *
+         * @return pool settings
+         */
+        public static Settings fromConfig() {
+            return new Settings(
+                    DatabaseConfig.getInt("DB_POOL_MIN_SIZE", 2),
+                    DatabaseConfig.getInt("DB_POOL_MAX_SIZE", 10),
+                    DatabaseConfig.getLong("DB_POOL_MAX_WAIT_MS", 10_000),
+                    DatabaseConfig.getLong("DB_POOL_IDLE_TIMEOUT_MS", 300_000),
+                    DatabaseConfig.getLong("DB_POOL_VALIDATION_INTERVAL_MS", 500),
+                    DatabaseConfig.getLong("DB_POOL_LEAK_THRESHOLD_MS", 0),
+                    DatabaseConfig.getLong("DB_POOL_HOUSEKEEPING_INTERVAL_MS", 30_000),
+                    DatabaseConfig.getInt("DB_POOL_STATEMENT_CACHE_SIZE", 64)
+            );
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // State
+    // ─────────────────────────────────────────────────────────────
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int totalConnections;
+    private boolean closed;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Creates a pool. Physical connections are opened lazily on demand and
+     * topped up to the minimum size by the background housekeeper.
+     *
+     * @param factory  opens new physical connections
+     * @param settings sizing and timing settings
+     */
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0,
+                settings.housekeepingIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Borrow / Release
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Borrows a connection, waiting up to the configured maximum if the pool is exhausted.
+     *
+     * @return a pooled connection handle; closing it returns it to the pool
+     * @throws SQLException if no connection could be obtained in time
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.maxWaitMs);
+
+        while (true) {
+            PooledConnection candidate;
+
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new SQLException("Connection pool has been shut down");
+                }
+
+                candidate = idle.pollFirst();
+                if (candidate == null && totalConnections >= settings.maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLTimeoutException("Timed out after " + settings.maxWaitMs
+                                + " ms waiting for a database connection (" + stats() + ")");
+                    }
+                    available.awaitNanos(remaining);
+                    continue;
+                }
+                if (candidate == null) {
+                    totalConnections++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            } finally {
+                lock.unlock();
+            }
+
+            if (candidate == null) {
+                candidate = openNew();
+            } else if (!isValid(candidate)) {
+                validationFailures.incrementAndGet();
+                destroy(candidate);
+                continue;
+            }
+
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+            return checkout(candidate);
+        }
+    }
+
+    private PooledConnection openNew() throws SQLException {
+        try {
+            PooledConnection pc = new PooledConnection(factory.open());
+            createdCount.incrementAndGet();
+            return pc;
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                totalConnections--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isValid(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastUsedAt < settings.validationIntervalMs) {
+            return true;
+        }
+        try {
+            return pc.physical.isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection checkout(PooledConnection pc) {
+        pc.borrowedAt = System.currentTimeMillis();
+        pc.leakReported = false;
+        pc.borrowTrace = settings.leakThresholdMs > 0
+                ? new Exception("Connection borrowed by thread " + Thread.currentThread().getName())
+                : null;
+
+        lock.lock();
+        try {
+            borrowed.add(pc);
+        } finally {
+            lock.unlock();
+        }
+
+        borrowCount.incrementAndGet();
+        return pc.newHandle();
+    }
+
+    /**
+     * Returns a physical connection to the idle set, resetting any transaction state
+     * left behind by the borrower. Broken connections are discarded instead.
+     */
+    private void release(PooledConnection pc) {
+        boolean reusable = !pc.broken;
+        if (reusable) {
+            try {
+                if (!pc.physical.getAutoCommit()) {
+                    pc.physical.rollback();
+                    pc.physical.setAutoCommit(true);
+                }
+                if (pc.physical.isReadOnly()) {
+                    pc.physical.setReadOnly(false);
+                }
+                pc.dropUnclosedStatements();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+
+        if (!reusable) {
+            destroy(pc);
+            return;
+        }
+
+        boolean closeNow;
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            closeNow = closed;
+            if (!closeNow) {
+                pc.lastUsedAt = System.currentTimeMillis();
+                idle.addFirst(pc);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (closeNow) {
+            destroy(pc);
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        closeQuietly(pc.physical);
+        destroyedCount.incrementAndGet();
+
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Housekeeping
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Evicts idle connections above the minimum, tops the pool back up to the
+     * minimum and reports connections held longer than the leak threshold.
+     */
+    private void housekeep() {
+        try {
+            List<PooledConnection> expired = new ArrayList<>();
+            List<PooledConnection> suspectedLeaks = new ArrayList<>();
+            int toCreate;
+            long now = System.currentTimeMillis();
+
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+
+                Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+                while (oldestFirst.hasNext() && totalConnections - expired.size() > settings.minSize) {
+                    PooledConnection pc = oldestFirst.next();
+                    if (now - pc.lastUsedAt < settings.idleTimeoutMs) {
+                        break;
+                    }
+                    oldestFirst.remove();
+                    expired.add(pc);
+                }
+
+                if (settings.leakThresholdMs > 0) {
+                    for (PooledConnection pc : borrowed) {
+                        if (!pc.leakReported && now - pc.borrowedAt > settings.leakThresholdMs) {
+                            pc.leakReported = true;
+                            suspectedLeaks.add(pc);
+                        }
+                    }
+                }
+
+                toCreate = Math.max(0, settings.minSize - (totalConnections - expired.size()));
+                totalConnections += toCreate;
+            } finally {
+                lock.unlock();
+            }
+
+            expired.forEach(this::destroy);
+
+            for (PooledConnection pc : suspectedLeaks) {
+                leakCount.incrementAndGet();
+                System.err.println("⚠️ Possible connection leak: held for "
+                        + (now - pc.borrowedAt) + " ms");
+                if (pc.borrowTrace != null) {
+                    pc.borrowTrace.printStackTrace();
+                }
+            }
+
+            for (int i = 0; i < toCreate; i++) {
+                PooledConnection pc;
+                try {
+                    pc = openNew();
+                } catch (SQLException e) {
+                    // openNew already released this slot; release the rest and retry next cycle
+                    lock.lock();
+                    try {
+                        totalConnections -= toCreate - i - 1;
+                    } finally {
+                        lock.unlock();
+                    }
+                    System.err.println("❌ Failed to pre-open pooled connection: " + e.getMessage());
+                    break;
+                }
+
+                lock.lock();
+                try {
+                    pc.lastUsedAt = System.currentTimeMillis();
+                    idle.addLast(pc);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper.
+     * Connections still borrowed are closed as they are returned.
+     */
+    public void shutdown() {
+        List<PooledConnection> toClose;
+
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        housekeeper.shutdownNow();
+        toClose.forEach(this::destroy);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Statistics
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Takes a snapshot of the pool's current state and lifetime counters.
+     *
+     * @return pool statistics
+     */
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(totalConnections, idle.size(), borrowed.size(),
+                    borrowCount.get(), createdCount.get(), destroyedCount.get(),
+                    validationFailures.get(), timeoutCount.get(), leakCount.get(),
+                    totalWaitNanos.get(), statementCacheHits.get(), statementCacheMisses.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool statistics.
+     */
+    public static final class Stats {
+        private final int total;
+        private final int idle;
+        private final int active;
+        private final long borrows;
+        private final long created;
+        private final long destroyed;
+        private final long validationFailures;
+        private final long timeouts;
+        private final long leaks;
+        private final long totalWaitNanos;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+
+        Stats(int total, int idle, int active, long borrows, long created, long destroyed,
+              long validationFailures, long timeouts, long leaks, long totalWaitNanos,
+              long statementCacheHits, long statementCacheMisses) {
+            this.total = total;
+            this.idle = idle;
+            this.active = active;
+            this.borrows = borrows;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.validationFailures = validationFailures;
+            this.timeouts = timeouts;
+            this.leaks = leaks;
+            this.totalWaitNanos = totalWaitNanos;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+        }
+
+        public int getTotal() { return total; }
+        public int getIdle() { return idle; }
+        public int getActive() { return active; }
+        public long getBorrows() { return borrows; }
+        public long getCreated() { return created; }
+        public long getDestroyed() { return destroyed; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getTimeouts() { return timeouts; }
+        public long getLeaks() { return leaks; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+
+        public double getStatementCacheHitRatio() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+        }
+
+        public double getAverageWaitMillis() {
+            return borrows == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrows;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("total=%d, idle=%d, active=%d, borrows=%d, created=%d, destroyed=%d, "
+                            + "validationFailures=%d, timeouts=%d, leaks=%d, avgWait=%.2fms, "
+                            + "stmtCacheHits=%d, stmtCacheMisses=%d (%.0f%% hit)",
+                    total, idle, active, borrows, created, destroyed,
+                    validationFailures, timeouts, leaks, getAverageWaitMillis(),
+                    statementCacheHits, statementCacheMisses, getStatementCacheHitRatio() * 100);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Pooled Connection Wrapper
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * A physical connection plus the bookkeeping the pool needs for it.
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long lastUsedAt = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile boolean leakReported;
+        volatile boolean broken;
+        volatile Exception borrowTrace;
+
+        // Only touched by the thread currently borrowing this connection
+        final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= settings.statementCacheSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Drops cached statements the borrower never closed, so the next
+         * borrower can never share a statement with stale code.
+         */
+        void dropUnclosedStatements() throws SQLException {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (it.hasNext()) {
+                CachedStatement cached = it.next();
+                if (cached.inUse) {
+                    it.remove();
+                    cached.evicted = true;
+                    cached.physical.close();
+                }
+            }
+        }
+
+        /**
+         * Returns a cached statement for the SQL text, preparing and caching it on a miss.
+         * If the cached statement is already open (the same SQL prepared twice
+         * before the first is closed), an uncached statement is returned instead.
+         */
+        PreparedStatement prepareCached(String sql, Connection owner) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.evicted) {
+                // Could not be reset when last returned; replace it
+                statements.remove(sql);
+                cached = null;
+            }
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.incrementAndGet();
+                return cached.checkout(owner);
+            }
+
+            statementCacheMisses.incrementAndGet();
+            PreparedStatement statement = physical.prepareStatement(sql);
+            if (cached != null) {
+                return statement;
+            }
+
+            cached = new CachedStatement(statement);
+            statements.put(sql, cached);
+            return cached.checkout(owner);
+        }
+
+        /**
+         * Creates a fresh proxy for one borrow. Each handle can be closed once;
+         * any use after close fails instead of touching a connection someone else now owns.
+         */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pc;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        Handle(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        release(pc);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned.get() || pc.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pc.physical + "]";
+                }
+                default -> {
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                }
+            }
+
+            if (method.getName().equals("prepareStatement") && args.length == 1 && settings.statementCacheSize > 0) {
+                try {
+                    return pc.prepareCached((String) args[0], (Connection) proxy);
+                } catch (SQLException e) {
+                    if (isConnectionError(e)) {
+                        pc.broken = true;
+                    }
+                    throw e;
+                }
+            }
+
+            try {
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql && isConnectionError(sql)) {
+                    pc.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    /**
+     * A prepared statement kept open on its physical connection for reuse.
+     * Callers get a proxy whose {@code close()} resets the statement and hands it back.
+     */
+    private static final class CachedStatement {
+        final PreparedStatement physical;
+        boolean inUse;
+        boolean evicted;
+
+        // Settings as prepared, restored on every checkin
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int queryTimeout;
+
+        CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.fetchSize = physical.getFetchSize();
+            this.fetchDirection = physical.getFetchDirection();
+            this.maxRows = physical.getMaxRows();
+            this.maxFieldSize = physical.getMaxFieldSize();
+            this.queryTimeout = physical.getQueryTimeout();
+        }
+
+        PreparedStatement checkout(Connection owner) {
+            inUse = true;
+            AtomicBoolean returned = new AtomicBoolean();
+
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                if (returned.compareAndSet(false, true)) {
+                                    checkin();
+                                }
+                                return null;
+                            }
+                            case "isClosed" -> {
+                                return returned.get() || physical.isClosed();
+                            }
+                            case "getConnection" -> {
+                                return owner;
+                            }
+                            case "equals" -> {
+                                return proxy == args[0];
+                            }
+                            case "hashCode" -> {
+                                return System.identityHashCode(proxy);
+                            }
+                            default -> {
+                                if (returned.get()) {
+                                    throw new SQLException("Statement has already been closed");
+                                }
+                            }
+                        }
+
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        /**
+         * Resets everything a borrower may have changed, so the next borrower
+         * gets the statement exactly as it was prepared. A statement that
+         * cannot be reset is closed and replaced on the next prepare.
+         */
+        private void checkin() throws SQLException {
+            inUse = false;
+            if (evicted) {
+                physical.close();
+                return;
+            }
+            try {
+                ResultSet open = physical.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                physical.clearWarnings();
+
+                if (physical.getFetchSize() != fetchSize) {
+                    physical.setFetchSize(fetchSize);
+                }
+                if (physical.getFetchDirection() != fetchDirection) {
+                    physical.setFetchDirection(fetchDirection);
+                }
+                if (physical.getMaxRows() != maxRows) {
+                    physical.setMaxRows(maxRows);
+                }
+                if (physical.getMaxFieldSize() != maxFieldSize) {
+                    physical.setMaxFieldSize(maxFieldSize);
+                }
+                if (physical.getQueryTimeout() != queryTimeout) {
+                    physical.setQueryTimeout(queryTimeout);
+                }
+                if (physical.isCloseOnCompletion()) {
+                    // Cannot be switched back off
+                    evicted = true;
+                    physical.close();
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                physical.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Called when the LRU cache drops this statement; closes it now or once it is returned.
+         */
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    physical.close();
+                } catch (SQLException ignored) {
+                    // Closing the connection will release it anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * SQLState class 08 covers connection exceptions; such connections are never reused.
+     */
+    private static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // Already unusable; nothing more to do
+        }
+    }
+}
@@ -12,6 +12,10 @@ import org.example.reptitrack.utils.DatabaseConfig;
  * and accessed via {@link DatabaseConfig}.
  * </p>
  * <p>
+ * Connections are served from a bounded {@link ConnectionPool}; closing a
+ * connection returns it to the pool rather than tearing down the socket.
+ * </p>
+ * <p>
  * This class is used throughout the application by all DAO classes.
  * </p>
  *
@@ -32,22 +36,54 @@ public class DatabaseConnection {
     // ─────────────────────────────────────────────────────────────
 
     private static final String URL = "jdbc:mysql://" + DatabaseConfig.get("DB_HOST") + ":" + DatabaseConfig.get("DB_PORT")
-            + "/" + DatabaseConfig.get("DB_NAME") + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+            + "/" + DatabaseConfig.get("DB_NAME") + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true"
+            // Statements are cached by ConnectionPool, so the driver's own cache stays off
+            + "&useServerPrepStmts=true";
 
     private static final String USER = DatabaseConfig.get("DB_USERNAME");
     private static final String PASSWORD = DatabaseConfig.get("DB_PASSWORD");
 
+    private static final ConnectionPool POOL =
+            new ConnectionPool(DatabaseConnection::openPhysicalConnection, ConnectionPool.Settings.fromConfig());
+
     // ─────────────────────────────────────────────────────────────
     // Public Method to Get a JDBC Connection
     // ─────────────────────────────────────────────────────────────
 
     /**
-     * Establishes a connection to the MySQL database using credentials from .env.
+     * Borrows a pooled connection to the MySQL database.
+     * Closing the returned connection hands it back to the pool.
      *
      * @return a valid {@link Connection} object
      * @throws SQLException if the connection cannot be established
      */
     public static Connection getConnection() throws SQLException {
+        return POOL.borrow();
+    }
+
+    /**
+     * Returns a snapshot of the connection pool statistics.
+     *
+     * @return current pool statistics
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return POOL.stats();
+    }
+
+    /**
+     * Closes all pooled connections. Called once when the application exits.
+     */
+    public static void shutdown() {
+        System.out.println("📊 Connection pool: " + POOL.stats());
+        POOL.shutdown();
+    }
+
+    /**
+     * Opens a new physical connection using credentials from .env.
+     * Only the pool should call this.
+     */
+    static Connection openPhysicalConnection() throws SQLException {
         return DriverManager.getConnection(URL, USER, PASSWORD);
     }
 }
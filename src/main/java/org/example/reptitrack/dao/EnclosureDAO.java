@@ -5,6 +5,7 @@ import org.example.reptitrack.models.Product;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * DAO class for managing records in the Enclosures table.
@@ -27,14 +28,14 @@ public class EnclosureDAO {
     /**
      * Retrieves all enclosures by joining Enclosures with Products table.
      *
-     * @return list of enclosure products
+     * @return list of enclosure products, or empty if the query failed
      */
-    public static List<Product> getAllEnclosures() {
+    public static Optional<List<Product>> getAllEnclosures() {
         List<Product> enclosures = new ArrayList<>();
 
         String sql = """
             SELECT e.enclosure_id, p.product_id, p.product_name, p.category, 
-                   p.stock_quantity, p.supplier, p.price, p.min_stock_level
+                   p.stock_quantity, p.supplier, p.price, p.min_stock_level, p.version
             FROM Enclosures e
             JOIN Products p ON e.product_id = p.product_id
         """;
@@ -44,7 +45,7 @@ public class EnclosureDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                enclosures.add(new Product(
+                Product enclosure = new Product(
                         rs.getInt("product_id"),
                         rs.getString("product_name"),
                         "Enclosures",
@@ -52,14 +53,17 @@ public class EnclosureDAO {
                         rs.getString("supplier"),
                         rs.getDouble("price"),
                         rs.getInt("min_stock_level")
-                ));
+                );
+                enclosure.setVersion(rs.getInt("version"));
+                enclosures.add(enclosure);
             }
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to fetch enclosures: " + e.getMessage());
+            return Optional.empty();
         }
 
-        return enclosures;
+        return Optional.of(enclosures);
     }
 
     // ───────────────────────────────────────────────────────
@@ -68,35 +72,14 @@ public class EnclosureDAO {
 
     /**
      * Inserts a new enclosure into the Enclosures table and the Products table.
+     * Delegates to {@link ProductRepository#insert(String, Product)}, which writes
+     * both rows in one transaction.
      *
-     * @param product product data representing an enclosure
+     * @param product product object representing the enclosure
+     * @return generated product_id, or -1 if nothing was written
      */
-    public static void insertEnclosure(Product product) {
-        int productId = ProductDAO.insertProductAndReturnId(product);
-
-        String sql = """
-            INSERT INTO Enclosures (product_name, category, stock_quantity, 
-                                    supplier, price, min_stock_level, product_id)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, productId);
-
-            stmt.executeUpdate();
-            System.out.println("✅ Enclosure added to Enclosures and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to insert enclosure: " + e.getMessage());
-        }
+    public static int insertEnclosure(Product product) {
+        return ProductRepository.insert("Enclosures", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -105,36 +88,13 @@ public class EnclosureDAO {
 
     /**
      * Updates an existing enclosure in both the Enclosures and Products tables.
+     * Delegates to {@link ProductRepository#update(String, Product)}.
      *
      * @param product updated product object
+     * @return number of Products rows updated
      */
-    public static void updateEnclosure(Product product) {
-        ProductDAO.updateProduct(product);
-
-        String sql = """
-            UPDATE Enclosures
-            SET product_name = ?, category = ?, stock_quantity = ?, 
-                supplier = ?, price = ?, min_stock_level = ?
-            WHERE product_id = ?
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, product.getId());
-
-            stmt.executeUpdate();
-            System.out.println("✅ Enclosure updated in Enclosures and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to update enclosure: " + e.getMessage());
-        }
+    public static int updateEnclosure(Product product) {
+        return ProductRepository.update("Enclosures", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -143,23 +103,12 @@ public class EnclosureDAO {
 
     /**
      * Deletes the enclosure with the given product ID from both Enclosures and Products.
+     * Delegates to {@link ProductRepository#delete(String, int)}.
      *
-     * @param productId product ID to delete
+     * @param productId the shared product_id to delete
+     * @return number of Products rows deleted
      */
-    public static void deleteEnclosure(int productId) {
-        String sql = "DELETE FROM Enclosures WHERE product_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, productId);
-            stmt.executeUpdate();
-
-            ProductDAO.deleteProductById(productId);
-            System.out.println("🗑️ Enclosure deleted from Enclosures and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to delete enclosure: " + e.getMessage());
-        }
+    public static int deleteEnclosure(int productId) {
+        return ProductRepository.delete("Enclosures", productId);
     }
 }
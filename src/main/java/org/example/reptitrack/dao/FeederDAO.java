@@ -5,6 +5,7 @@ import org.example.reptitrack.models.Product;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * DAO class for managing records in the Feeders table.
@@ -25,14 +26,14 @@ public class FeederDAO {
     /**
      * Retrieves all feeders by joining the Feeders and Products tables.
      *
-     * @return list of Product objects representing feeder products
+     * @return list of Product objects representing feeder products, or empty if the query failed
      */
-    public static List<Product> getAllFeeders() {
+    public static Optional<List<Product>> getAllFeeders() {
         List<Product> feeders = new ArrayList<>();
 
         String sql = """
             SELECT f.feeder_id, p.product_id, p.product_name, p.category, 
-                   p.stock_quantity, p.supplier, p.price, p.min_stock_level
+                   p.stock_quantity, p.supplier, p.price, p.min_stock_level, p.version
             FROM Feeders f
             JOIN Products p ON f.product_id = p.product_id
         """;
@@ -42,7 +43,7 @@ public class FeederDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                feeders.add(new Product(
+                Product feeder = new Product(
                         rs.getInt("product_id"),
                         rs.getString("product_name"),
                         "Feeders",
@@ -50,14 +51,17 @@ public class FeederDAO {
                         rs.getString("supplier"),
                         rs.getDouble("price"),
                         rs.getInt("min_stock_level")
-                ));
+                );
+                feeder.setVersion(rs.getInt("version"));
+                feeders.add(feeder);
             }
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to fetch feeders: " + e.getMessage());
+            return Optional.empty();
         }
 
-        return feeders;
+        return Optional.of(feeders);
     }
 
     // ───────────────────────────────────────────────────────
@@ -66,35 +70,14 @@ public class FeederDAO {
 
     /**
      * Inserts a new feeder into both the Feeders and Products tables.
+     * Delegates to {@link ProductRepository#insert(String, Product)}, which writes
+     * both rows in one transaction.
      *
-     * @param product the feeder product to insert
+     * @param product product object representing the feeder
+     * @return generated product_id, or -1 if nothing was written
      */
-    public static void insertFeeder(Product product) {
-        int productId = ProductDAO.insertProductAndReturnId(product);
-
-        String sql = """
-            INSERT INTO Feeders (product_name, category, stock_quantity, 
-                                 supplier, price, min_stock_level, product_id)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, productId);
-
-            stmt.executeUpdate();
-            System.out.println("✅ Feeder added to Feeders and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to insert feeder: " + e.getMessage());
-        }
+    public static int insertFeeder(Product product) {
+        return ProductRepository.insert("Feeders", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -103,36 +86,13 @@ public class FeederDAO {
 
     /**
      * Updates a feeder record in both the Feeders and Products tables.
+     * Delegates to {@link ProductRepository#update(String, Product)}.
      *
-     * @param product the updated feeder product
+     * @param product updated product object
+     * @return number of Products rows updated
      */
-    public static void updateFeeder(Product product) {
-        ProductDAO.updateProduct(product);
-
-        String sql = """
-            UPDATE Feeders
-            SET product_name = ?, category = ?, stock_quantity = ?, 
-                supplier = ?, price = ?, min_stock_level = ?
-            WHERE product_id = ?
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, product.getId());
-
-            stmt.executeUpdate();
-            System.out.println("✅ Feeder updated in Feeders and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to update feeder: " + e.getMessage());
-        }
+    public static int updateFeeder(Product product) {
+        return ProductRepository.update("Feeders", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -141,23 +101,12 @@ public class FeederDAO {
 
     /**
      * Deletes the feeder record with the given productId from both tables.
+     * Delegates to {@link ProductRepository#delete(String, int)}.
      *
-     * @param productId the product ID to delete
+     * @param productId the shared product_id to delete
+     * @return number of Products rows deleted
      */
-    public static void deleteFeeder(int productId) {
-        String sql = "DELETE FROM Feeders WHERE product_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, productId);
-            stmt.executeUpdate();
-
-            ProductDAO.deleteProductById(productId);
-            System.out.println("🗑️ Feeder deleted from Feeders and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to delete feeder: " + e.getMessage());
-        }
+    public static int deleteFeeder(int productId) {
+        return ProductRepository.delete("Feeders", productId);
     }
 }
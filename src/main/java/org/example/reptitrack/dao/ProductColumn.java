@@ -0,0 +1,120 @@
+package org.example.reptitrack.dao;
+
+import org.example.reptitrack.models.Product;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Columns of the Products table that a query can project.
+ * <p>
+ * Read methods in {@link ProductDAO} accept a set of these so each screen
+ * fetches only the columns it renders. product_id is always selected, because
+ * rows are keyed and paged by it. Columns left out keep their default value on
+ * the returned {@link Product} (null for text, 0 for numbers).
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ *     ProductDAO.getAllProducts(EnumSet.of(ProductColumn.PRODUCT_NAME, ProductColumn.PRICE));
+ * }</pre>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public enum ProductColumn {
+
+    PRODUCT_NAME("product_name") {
+        @Override
+        void read(ResultSet rs, Product product) throws SQLException {
+            product.setProductName(rs.getString(column));
+        }
+    },
+    CATEGORY("category") {
+        @Override
+        void read(ResultSet rs, Product product) throws SQLException {
+            product.setCategory(rs.getString(column));
+        }
+    },
+    STOCK_QUANTITY("stock_quantity") {
+        @Override
+        void read(ResultSet rs, Product product) throws SQLException {
+            product.setStockQuantity(rs.getInt(column));
+        }
+    },
+    SUPPLIER("supplier") {
+        @Override
+        void read(ResultSet rs, Product product) throws SQLException {
+            product.setSupplier(rs.getString(column));
+        }
+    },
+    PRICE("price") {
+        @Override
+        void read(ResultSet rs, Product product) throws SQLException {
+            product.setPrice(rs.getDouble(column));
+        }
+    },
+    MIN_STOCK_LEVEL("min_stock_level") {
+        @Override
+        void read(ResultSet rs, Product product) throws SQLException {
+            product.setMinStockLevel(rs.getInt(column));
+        }
+    },
+    VERSION("version") {
+        @Override
+        void read(ResultSet rs, Product product) throws SQLException {
+            product.setVersion(rs.getInt(column));
+        }
+    };
+
+    /** Every column; what the shared catalog cache and edit forms need. */
+    public static final Set<ProductColumn> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductColumn.class));
+
+    final String column;
+
+    ProductColumn(String column) {
+        this.column = column;
+    }
+
+    /**
+     * Copies this column from the current row onto the product.
+     */
+    abstract void read(ResultSet rs, Product product) throws SQLException;
+
+    /**
+     * Builds the select list for a projection, always starting with product_id.
+     *
+     * @param columns the columns to select
+     * @param alias   table alias to qualify columns with, or null for none
+     * @return a comma-separated select list
+     */
+    static String selectList(Set<ProductColumn> columns, String alias) {
+        String prefix = alias == null ? "" : alias + ".";
+        StringJoiner list = new StringJoiner(", ");
+        list.add(prefix + "product_id");
+        for (ProductColumn c : columns) {
+            list.add(prefix + c.column);
+        }
+        return list.toString();
+    }
+
+    /**
+     * Reads the current row into a new product, filling only the projected columns.
+     *
+     * @param rs      the result set, positioned on a row
+     * @param columns the columns that were selected
+     * @return the product for this row
+     * @throws SQLException if a column cannot be read
+     */
+    static Product readRow(ResultSet rs, Set<ProductColumn> columns) throws SQLException {
+        Product product = new Product(rs.getInt("product_id"), null, null, 0, null, 0, 0);
+        for (ProductColumn c : columns) {
+            c.read(rs, product);
+        }
+        return product;
+    }
+}
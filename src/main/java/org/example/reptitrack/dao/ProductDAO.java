@@ -4,13 +4,17 @@ import org.example.reptitrack.models.Product;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
- * DAO class for performing CRUD operations on the Products table.
+ * DAO class for reading the Products table.
  * <p>
- * This class is used by all category DAO classes to ensure that each
- * product has a matching entry in the central Products table.
+ * Writes to products go through {@link ProductRepository}, which keeps the
+ * Products row and its category table row in step.
  * </p>
  *
  * @author Jarrod
@@ -25,190 +29,218 @@ public class ProductDAO {
     /**
      * Retrieves all products from the Products table.
      *
-     * @return list of Product objects
+     * @return list of Product objects with every column filled, or empty if the query failed
      */
-    public static List<Product> getAllProducts() {
+    public static Optional<List<Product>> getAllProducts() {
+        return getAllProducts(ProductColumn.ALL);
+    }
+
+    /**
+     * Retrieves all products, selecting only the given columns.
+     *
+     * @param columns the columns to fetch (product_id is always included)
+     * @return list of Product objects with only those columns filled, or empty if the query failed
+     */
+    public static Optional<List<Product>> getAllProducts(Set<ProductColumn> columns) {
         List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM Products";
+        String sql = "SELECT " + ProductColumn.selectList(columns, null) + " FROM Products";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                products.add(new Product(
-                        rs.getInt("product_id"),
-                        rs.getString("product_name"),
-                        rs.getString("category"),
-                        rs.getInt("stock_quantity"),
-                        rs.getString("supplier"),
-                        rs.getDouble("price"),
-                        rs.getInt("min_stock_level")
-                ));
+                products.add(ProductColumn.readRow(rs, columns));
             }
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to fetch products: " + e.getMessage());
+            return Optional.empty();
         }
 
-        return products;
+        return Optional.of(products);
     }
 
     /**
-     * Retrieves the stock quantity for a specific product.
+     * Streams every product in the Products table to a visitor, one row at a time.
+     * <p>
+     * Intended for reports and exports over the whole catalog. The statement is
+     * forward-only and read-only with a fetch size of {@link Integer#MIN_VALUE},
+     * which tells Connector/J to stream rows from the server instead of
+     * buffering the full result, so heap use stays constant however many rows
+     * there are. The visitor should avoid slow work per row because the server
+     * holds the result open until the stream is drained. The statement, result
+     * set and connection are closed when the walk finishes, fails, or the
+     * visitor throws.
+     * </p>
      *
-     * @param productId the ID of the product
-     * @return stock quantity or 0 if not found
+     * Example usage:
+     * <pre>{@code
+     *     long rows = ProductDAO.forEachProduct(EnumSet.of(ProductColumn.PRODUCT_NAME),
+     *             p -> writer.println(p.getId() + "," + p.getProductName()));
+     * }</pre>
+     *
+     * @param columns the columns to fetch (product_id is always included)
+     * @param visitor receives each product in product_id order
+     * @return number of rows visited, or -1 if the query failed
      */
-    public static int getQuantityById(int productId) {
-        String query = "SELECT stock_quantity FROM Products WHERE product_id = ?";
+    public static long forEachProduct(Set<ProductColumn> columns, Consumer<Product> visitor) {
+        String sql = "SELECT " + ProductColumn.selectList(columns, null) + " FROM Products ORDER BY product_id";
+
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
 
-            stmt.setInt(1, productId);
-            ResultSet rs = stmt.executeQuery();
+            stmt.setFetchSize(Integer.MIN_VALUE); // Connector/J row-by-row streaming
 
-            if (rs.next()) {
-                return rs.getInt("stock_quantity");
+            long count = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.accept(ProductColumn.readRow(rs, columns));
+                    count++;
+                }
             }
+            return count;
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to get quantity: " + e.getMessage());
+            System.err.println("❌ Failed to stream products: " + e.getMessage());
+            return -1;
         }
-
-        return 0;
     }
 
-    // ─────────────────────────────────────────────────────────────
-    // CREATE
-    // ─────────────────────────────────────────────────────────────
-
     /**
-     * Inserts a new product into the Products table.
+     * Retrieves one page of products with a product_id greater than {@code afterId},
+     * in ascending product_id order (keyset pagination).
+     * <p>
+     * Each page is an index range scan on the primary key, so fetching page 500
+     * costs the same as fetching page 1.
+     * </p>
      *
-     * @param product the product to insert
+     * @param category the category to list (e.g. "Animals"), or null for all products
+     * @param columns  the columns to fetch (product_id is always included)
+     * @param afterId  the last product_id of the previous page (0 for the first page)
+     * @param limit    the maximum number of rows to return
+     * @return the next page of products, fewer than {@code limit} rows meaning the end was reached;
+     *         or empty if the query failed
      */
-    public static void insertProduct(Product product) {
-        String sql = """
-            INSERT INTO Products (product_name, category, stock_quantity, 
-                                  supplier, price, min_stock_level)
-            VALUES (?, ?, ?, ?, ?, ?)
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-
-            stmt.executeUpdate();
-            System.out.println("✅ Product inserted into Products table.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to insert product: " + e.getMessage());
-        }
+    public static Optional<List<Product>> getProductsPageAfter(String category, Set<ProductColumn> columns, int afterId, int limit) {
+        return queryPage(pageSql(category, columns, ">", "ASC"), columns, afterId, limit, false);
     }
 
     /**
-     * Inserts a product and returns its generated product ID.
+     * Retrieves one page of products with a product_id less than {@code beforeId},
+     * in ascending product_id order. Used to page back towards the start of a listing.
      *
-     * @param product the product to insert
-     * @return generated product_id or -1 if failed
+     * @param category the category to list, or null for all products
+     * @param columns  the columns to fetch (product_id is always included)
+     * @param beforeId the first product_id of the page currently shown
+     * @param limit    the maximum number of rows to return
+     * @return the previous page of products, or empty if the query failed
      */
-    public static int insertProductAndReturnId(Product product) {
-        String sql = """
-            INSERT INTO Products (product_name, category, stock_quantity, 
-                                  supplier, price, min_stock_level)
-            VALUES (?, ?, ?, ?, ?, ?)
-        """;
+    public static Optional<List<Product>> getProductsPageBefore(String category, Set<ProductColumn> columns, int beforeId, int limit) {
+        return queryPage(pageSql(category, columns, "<", "DESC"), columns, beforeId, limit, true);
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Builds a keyset page query over Products, joined to a category table when one is given.
+     */
+    private static String pageSql(String category, Set<ProductColumn> columns, String comparison, String direction) {
+        if (category == null) {
+            return """
+                SELECT %s
+                FROM Products
+                WHERE product_id %s ?
+                ORDER BY product_id %s
+                LIMIT ?
+            """.formatted(ProductColumn.selectList(columns, null), comparison, direction);
+        }
+        return """
+            SELECT %s
+            FROM %s c
+            JOIN Products p ON c.product_id = p.product_id
+            WHERE p.product_id %s ?
+            ORDER BY p.product_id %s
+            LIMIT ?
+        """.formatted(ProductColumn.selectList(columns, "p"), ProductRepository.tableFor(category),
+                comparison, direction);
+    }
 
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
+    private static Optional<List<Product>> queryPage(String sql, Set<ProductColumn> columns, int keyId, int limit, boolean reverse) {
+        List<Product> page = new ArrayList<>(limit);
 
-            stmt.executeUpdate();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int id = rs.getInt(1);
-                System.out.println("✅ Product inserted with ID: " + id);
-                return id;
+            stmt.setInt(1, keyId);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(ProductColumn.readRow(rs, columns));
+                }
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to insert and fetch product ID: " + e.getMessage());
+            System.err.println("❌ Failed to fetch product page: " + e.getMessage());
+            return Optional.empty();
         }
 
-        return -1;
+        if (reverse) {
+            Collections.reverse(page);
+        }
+        return Optional.of(page);
     }
 
-    // ─────────────────────────────────────────────────────────────
-    // UPDATE
-    // ─────────────────────────────────────────────────────────────
-
     /**
-     * Updates an existing product's details in the Products table.
+     * Retrieves the current row for a single product, with every column filled.
+     * Used to show what changed when an update hits a version conflict.
      *
-     * @param product the updated product object
+     * @param productId the ID of the product
+     * @return the product, or null if it does not exist or the query failed
      */
-    public static void updateProduct(Product product) {
-        String sql = """
-            UPDATE Products 
-            SET product_name = ?, category = ?, stock_quantity = ?, 
-                supplier = ?, price = ?, min_stock_level = ?
-            WHERE product_id = ?
-        """;
+    public static Product getProductById(int productId) {
+        String sql = "SELECT " + ProductColumn.selectList(ProductColumn.ALL, null)
+                + " FROM Products WHERE product_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, product.getId());
-
-            stmt.executeUpdate();
-            System.out.println("✅ Product updated in Products table.");
+            stmt.setInt(1, productId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return ProductColumn.readRow(rs, ProductColumn.ALL);
+                }
+            }
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to update product: " + e.getMessage());
+            System.err.println("❌ Failed to get product: " + e.getMessage());
         }
-    }
 
-    // ─────────────────────────────────────────────────────────────
-    // DELETE
-    // ─────────────────────────────────────────────────────────────
+        return null;
+    }
 
     /**
-     * Deletes a product by its product ID from the Products table.
+     * Retrieves the stock quantity for a specific product.
      *
-     * @param productId the ID of the product to delete
+     * @param productId the ID of the product
+     * @return stock quantity or 0 if not found
      */
-    public static void deleteProductById(int productId) {
-        String sql = "DELETE FROM Products WHERE product_id = ?";
-
+    public static int getQuantityById(int productId) {
+        String query = "SELECT stock_quantity FROM Products WHERE product_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, productId);
-            stmt.executeUpdate();
-            System.out.println("🗑️ Product deleted from Products table.");
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt("stock_quantity");
+            }
 
         } catch (SQLException e) {
-            System.err.println("❌ Failed to delete product: " + e.getMessage());
+            System.err.println("❌ Failed to get quantity: " + e.getMessage());
         }
+
+        return 0;
     }
 }
@@ -0,0 +1,273 @@
+package org.example.reptitrack.dao;
+
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.CatalogCache;
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.sql.*;
+
+/**
+ * Category-aware repository for product mutations.
+ * <p>
+ * Every product lives in the central Products table and in exactly one
+ * category table (Animals, Enclosures, Feeders or Supplies). Each method here
+ * performs one logical change across both tables exactly once, inside a single
+ * transaction, and reports how many Products rows were affected so the caller
+ * knows whether the write happened.
+ * </p>
+ * <p>
+ * The category DAOs delegate their insert, update and delete methods here.
+ * </p>
+ * <p>
+ * Updates are optimistic: the Products row is only written if its
+ * {@code version} still matches the version the caller read, and every write
+ * to the row (including sales) bumps it. An edit
+ * based on stale data therefore writes nothing instead of overwriting a
+ * newer stock level, without holding any lock while the user edits.
+ * </p>
+ * <p>
+ * With {@code DB_SCHEMA_MODE=normalized} in the .env file (after running
+ * {@code db/V2__normalize_category_tables.sql}), category tables hold only
+ * product_id, so updates touch the Products row alone.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class ProductRepository {
+
+    // Category tables hold only product_id when the normalized schema is in use
+    private static final boolean NORMALIZED =
+            "normalized".equalsIgnoreCase(DatabaseConfig.get("DB_SCHEMA_MODE", "legacy"));
+
+    // ─────────────────────────────────────────────────────────────
+    // CREATE
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Inserts a product into Products and its category table in one transaction.
+     * The generated product_id is set on the product.
+     *
+     * @param category the category name (e.g. "Animals")
+     * @param product  the product to insert
+     * @return the generated product_id, or -1 if nothing was written
+     */
+    public static int insert(String category, Product product) {
+        String table = tableFor(category);
+
+        String productSql = """
+            INSERT INTO Products (product_name, category, stock_quantity,
+                                  supplier, price, min_stock_level)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+        String categorySql = NORMALIZED
+                ? "INSERT INTO %s (product_id) VALUES (?)".formatted(table)
+                : """
+                    INSERT INTO %s (product_name, category, stock_quantity,
+                                    supplier, price, min_stock_level, product_id)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                """.formatted(table);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int productId;
+                try (PreparedStatement stmt = conn.prepareStatement(productSql, Statement.RETURN_GENERATED_KEYS)) {
+                    bindProductColumns(stmt, product);
+                    stmt.executeUpdate();
+
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        if (!keys.next()) {
+                            throw new SQLException("No product_id was generated");
+                        }
+                        productId = keys.getInt(1);
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(categorySql)) {
+                    if (NORMALIZED) {
+                        stmt.setInt(1, productId);
+                    } else {
+                        bindProductColumns(stmt, product);
+                        stmt.setInt(7, productId);
+                    }
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                product.setId(productId);
+                CatalogCache.getInstance().putInCategory(category, product);
+                System.out.println("✅ Product added to Products and " + table + " (product_id = " + productId + ")");
+                return productId;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to insert product into " + table + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // UPDATE
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Updates a product in Products and its category table in one transaction,
+     * only if the Products row is still at the product's version. Under the
+     * normalized schema only the Products row is written. On success the
+     * product's version is advanced to match the row.
+     *
+     * @param category the category name
+     * @param product  the updated product, carrying the version it was read at
+     * @return number of Products rows updated (0 if the row changed since it was read,
+     *         the product no longer exists, or the write failed)
+     */
+    public static int update(String category, Product product) {
+        String table = tableFor(category);
+
+        String productSql = """
+            UPDATE Products
+            SET product_name = ?, category = ?, stock_quantity = ?,
+                supplier = ?, price = ?, min_stock_level = ?, version = version + 1
+            WHERE product_id = ? AND version = ?
+        """;
+        String categorySql = """
+            UPDATE %s
+            SET product_name = ?, category = ?, stock_quantity = ?,
+                supplier = ?, price = ?, min_stock_level = ?
+            WHERE product_id = ?
+        """.formatted(table);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int rows;
+                try (PreparedStatement stmt = conn.prepareStatement(productSql)) {
+                    bindProductColumns(stmt, product);
+                    stmt.setInt(7, product.getId());
+                    stmt.setInt(8, product.getVersion());
+                    rows = stmt.executeUpdate();
+                }
+
+                if (rows > 0 && !NORMALIZED) {
+                    try (PreparedStatement stmt = conn.prepareStatement(categorySql)) {
+                        bindProductColumns(stmt, product);
+                        stmt.setInt(7, product.getId());
+                        stmt.executeUpdate();
+                    }
+                }
+
+                conn.commit();
+                if (rows > 0) {
+                    product.setVersion(product.getVersion() + 1);
+                    CatalogCache.getInstance().putInCategory(category, product);
+                    System.out.println("✅ Product updated in Products and " + table + ".");
+                } else {
+                    System.err.println("❌ Product " + product.getId() + " was not updated: it changed or was deleted since it was read.");
+                }
+                return rows;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to update product in " + table + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // DELETE
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Deletes a product from its category table and Products in one transaction.
+     *
+     * @param category  the category name
+     * @param productId the shared product_id to delete
+     * @return number of Products rows deleted (0 if it was already gone or the write failed)
+     */
+    public static int delete(String category, int productId) {
+        String table = tableFor(category);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + table + " WHERE product_id = ?")) {
+                    stmt.setInt(1, productId);
+                    stmt.executeUpdate();
+                }
+
+                int rows;
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM Products WHERE product_id = ?")) {
+                    stmt.setInt(1, productId);
+                    rows = stmt.executeUpdate();
+                }
+
+                conn.commit();
+                CatalogCache.getInstance().remove(productId);
+                System.out.println("🗑️ Product deleted from " + table + " and Products.");
+                return rows;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to delete product from " + table + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Whether category tables use the normalized schema (product_id only).
+     *
+     * @return true if DB_SCHEMA_MODE=normalized
+     */
+    public static boolean isNormalizedSchema() {
+        return NORMALIZED;
+    }
+
+    /**
+     * Maps a category name to its table.
+     *
+     * @param category the category name (case-insensitive)
+     * @return the category table name
+     * @throws IllegalArgumentException if the category has no table
+     */
+    static String tableFor(String category) {
+        return switch (category == null ? "" : category.toLowerCase()) {
+            case "animals"    -> "Animals";
+            case "enclosures" -> "Enclosures";
+            case "feeders"    -> "Feeders";
+            case "supplies"   -> "Supplies";
+            default           -> throw new IllegalArgumentException("Unsupported category: " + category);
+        };
+    }
+
+    /**
+     * Binds the six shared product columns to parameters 1–6.
+     */
+    private static void bindProductColumns(PreparedStatement stmt, Product product) throws SQLException {
+        stmt.setString(1, product.getProductName());
+        stmt.setString(2, product.getCategory());
+        stmt.setInt(3, product.getStockQuantity());
+        stmt.setString(4, product.getSupplier());
+        stmt.setDouble(5, product.getPrice());
+        stmt.setInt(6, product.getMinStockLevel());
+    }
+}
@@ -0,0 +1,490 @@
+package org.example.reptitrack.dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * DAO class for holding stock in the StockReservations table while it sits
+ * in a terminal's cart.
+ * <p>
+ * {@code Products.stock_quantity} stays the number of units on hand; a
+ * reservation never changes it. The units available to sell are the units
+ * on hand less every live reservation, and {@link #availableStock} computes
+ * that. Reserving locks the product row, checks availability and records the
+ * hold in one transaction, so two terminals can never both take the last
+ * unit. Releasing only shrinks or deletes the terminal's row.
+ * </p>
+ * <p>
+ * Each row carries an {@code expires_at} time set by the database clock.
+ * Live terminals keep their rows fresh with {@link #refresh(String, Map, int)},
+ * which also drops any units the terminal no longer holds. Expired rows no
+ * longer count against availability, and {@link #releaseExpired()}, which any
+ * terminal may run, deletes them. A refresh never revives an expired row
+ * as it was; it reserves the units again only if they are still available.
+ * </p>
+ * <p>
+ * Transactions that touch both tables lock the product row before any
+ * reservation row, and multi-row changes go in product_id order, so tills
+ * cannot deadlock one another.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class ReservationDAO {
+
+    /**
+     * A reservation row about to be released.
+     */
+    private record Held(String terminalId, int productId, int quantity) {}
+
+    // ─────────────────────────────────────────────────────────────
+    // RESERVE
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Reserves units of a product for a terminal, if enough are available.
+     *
+     * @param terminalId the terminal holding the stock
+     * @param productId  the product ID
+     * @param quantity   units to add to the terminal's reservation
+     * @param ttlSeconds how long the reservation lives without a refresh
+     * @return true if the units were reserved, false if stock was short or the update failed
+     */
+    public static boolean reserve(String terminalId, int productId, int quantity, int ttlSeconds) {
+        String holdSql = """
+            INSERT INTO StockReservations (terminal_id, product_id, quantity, expires_at)
+            VALUES (?, ?, ?, NOW(3) + INTERVAL ? SECOND)
+            ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity),
+                                    expires_at = VALUES(expires_at)
+        """;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // The terminal's own row counts even if it has expired, since the upsert revives it
+                int available = availableStock(conn, List.of(productId), terminalId, false)
+                        .getOrDefault(productId, 0);
+                if (available < quantity) {
+                    conn.rollback();
+                    System.err.println("❌ Not enough stock to reserve " + quantity + " of product " + productId);
+                    return false;
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(holdSql)) {
+                    stmt.setString(1, terminalId);
+                    stmt.setInt(2, productId);
+                    stmt.setInt(3, quantity);
+                    stmt.setInt(4, ttlSeconds);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to reserve stock: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Extends a terminal's live reservations and brings them in line with what
+     * the terminal still holds. Rows (or units) the terminal no longer
+     * accounts for, such as those left by a release that failed, are dropped
+     * instead of being kept alive.
+     * <p>
+     * Rows that have already expired are not simply extended, since other
+     * terminals may have reserved or sold those units since. Held units
+     * without a live row are reserved again only as far as stock is still
+     * available, in a second transaction that checks availability like
+     * {@link #reserve}.
+     * </p>
+     *
+     * @param terminalId the terminal
+     * @param held       units the terminal holds per product_id
+     * @param ttlSeconds new lifetime, from now
+     * @return units dropped per product_id
+     */
+    public static Map<Integer, Integer> refresh(String terminalId, Map<Integer, Integer> held, int ttlSeconds) {
+        String selectSql = """
+            SELECT product_id, quantity, expires_at >= NOW(3) AS live FROM StockReservations
+            WHERE terminal_id = ?
+            ORDER BY product_id
+            FOR UPDATE
+        """;
+        String setSql = "UPDATE StockReservations SET quantity = ? WHERE terminal_id = ? AND product_id = ?";
+        String deleteSql = "DELETE FROM StockReservations WHERE terminal_id = ? AND product_id = ?";
+        String extendSql = """
+            UPDATE StockReservations SET expires_at = NOW(3) + INTERVAL ? SECOND
+            WHERE terminal_id = ? AND expires_at >= NOW(3)
+        """;
+
+        Map<Integer, Integer> dropped = new TreeMap<>();
+        // Held products not covered by a live row; reserved again once this transaction commits
+        Set<Integer> missing = new TreeSet<>(held.keySet());
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    stmt.setString(1, terminalId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            int productId = rs.getInt("product_id");
+                            int quantity = rs.getInt("quantity");
+                            int surplus = quantity - held.getOrDefault(productId, 0);
+                            if (surplus > 0) {
+                                dropped.put(productId, surplus);
+                            }
+                            if (rs.getBoolean("live") && surplus >= 0) {
+                                missing.remove(productId);
+                            }
+                        }
+                    }
+                }
+
+                if (!dropped.isEmpty()) {
+                    try (PreparedStatement set = conn.prepareStatement(setSql);
+                         PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                        for (Integer productId : dropped.keySet()) {
+                            int keep = held.getOrDefault(productId, 0);
+                            if (keep > 0) {
+                                set.setInt(1, keep);
+                                set.setString(2, terminalId);
+                                set.setInt(3, productId);
+                                set.addBatch();
+                            } else {
+                                delete.setString(1, terminalId);
+                                delete.setInt(2, productId);
+                                delete.addBatch();
+                            }
+                        }
+                        set.executeBatch();
+                        delete.executeBatch();
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(extendSql)) {
+                    stmt.setInt(1, ttlSeconds);
+                    stmt.setString(2, terminalId);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to refresh stock reservations: " + e.getMessage());
+            return Map.of();
+        }
+
+        if (!missing.isEmpty()) {
+            restore(terminalId, held, missing, ttlSeconds).forEach((id, units) -> dropped.merge(id, units, Integer::sum));
+        }
+        return dropped;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // RELEASE
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Releases reserved units of a product, making them available again.
+     *
+     * @param terminalId the terminal holding the stock
+     * @param productId  the product ID
+     * @param quantity   units to release
+     * @return units actually released (fewer if the reservation had already been swept)
+     */
+    public static int release(String terminalId, int productId, int quantity) {
+        String selectSql = """
+            SELECT quantity FROM StockReservations
+            WHERE terminal_id = ? AND product_id = ?
+            FOR UPDATE
+        """;
+        String shrinkSql = "UPDATE StockReservations SET quantity = quantity - ? WHERE terminal_id = ? AND product_id = ?";
+        String deleteSql = "DELETE FROM StockReservations WHERE terminal_id = ? AND product_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int held = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    stmt.setString(1, terminalId);
+                    stmt.setInt(2, productId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            held = rs.getInt("quantity");
+                        }
+                    }
+                }
+
+                int released = Math.min(held, quantity);
+                if (released == 0) {
+                    conn.rollback();
+                    return 0;
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(released == held ? deleteSql : shrinkSql)) {
+                    int i = 1;
+                    if (released < held) {
+                        stmt.setInt(i++, released);
+                    }
+                    stmt.setString(i++, terminalId);
+                    stmt.setInt(i, productId);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                return released;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to release stock reservation: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Releases everything a terminal holds, such as reservations left by the
+     * terminal's previous run.
+     *
+     * @param terminalId the terminal
+     * @return units released per product_id
+     */
+    public static Map<Integer, Integer> releaseAll(String terminalId) {
+        String sql = """
+            SELECT terminal_id, product_id, quantity FROM StockReservations
+            WHERE terminal_id = ?
+            ORDER BY product_id
+            FOR UPDATE
+        """;
+        return releaseWhere(sql, terminalId);
+    }
+
+    /**
+     * Deletes every expired reservation, from any terminal. Expired rows
+     * already stopped counting against availability; this keeps the table small.
+     *
+     * @return units released per product_id
+     */
+    public static Map<Integer, Integer> releaseExpired() {
+        String sql = """
+            SELECT terminal_id, product_id, quantity FROM StockReservations
+            WHERE expires_at < NOW(3)
+            ORDER BY terminal_id, product_id
+            FOR UPDATE
+        """;
+        return releaseWhere(sql, null);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Reserves held units again for products whose reservation expired or was
+     * swept, such as after a database outage longer than the TTL. Each row is
+     * set to what the terminal holds, or to what is still available if less;
+     * the rest is dropped and left for checkout to reject if it is still short.
+     *
+     * @return units that could not be reserved again, per product_id
+     */
+    private static Map<Integer, Integer> restore(String terminalId, Map<Integer, Integer> held,
+                                                 Set<Integer> productIds, int ttlSeconds) {
+        String setSql = """
+            INSERT INTO StockReservations (terminal_id, product_id, quantity, expires_at)
+            VALUES (?, ?, ?, NOW(3) + INTERVAL ? SECOND)
+            ON DUPLICATE KEY UPDATE quantity = VALUES(quantity),
+                                    expires_at = VALUES(expires_at)
+        """;
+        String deleteSql = "DELETE FROM StockReservations WHERE terminal_id = ? AND product_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Other terminals' live holds only; this terminal's row is being replaced
+                Map<Integer, Integer> available = availableStock(conn, List.copyOf(productIds), terminalId, true);
+
+                Map<Integer, Integer> lost = new TreeMap<>();
+                try (PreparedStatement set = conn.prepareStatement(setSql);
+                     PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                    for (Integer productId : productIds) {
+                        int wanted = held.get(productId);
+                        int keep = Math.max(0, Math.min(wanted, available.getOrDefault(productId, 0)));
+                        if (keep > 0) {
+                            set.setString(1, terminalId);
+                            set.setInt(2, productId);
+                            set.setInt(3, keep);
+                            set.setInt(4, ttlSeconds);
+                            set.addBatch();
+                        } else {
+                            delete.setString(1, terminalId);
+                            delete.setInt(2, productId);
+                            delete.addBatch();
+                        }
+                        if (keep < wanted) {
+                            lost.put(productId, wanted - keep);
+                        }
+                    }
+                    set.executeBatch();
+                    delete.executeBatch();
+                }
+
+                conn.commit();
+                if (!lost.isEmpty()) {
+                    System.err.println("❌ Reservations expired and could not be fully restored for product(s) " + lost.keySet());
+                }
+                return lost;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to restore expired stock reservations: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Locks the reservation rows matched by a query and deletes exactly those
+     * rows, in one transaction.
+     */
+    private static Map<Integer, Integer> releaseWhere(String selectSql, String parameter) {
+        String deleteSql = "DELETE FROM StockReservations WHERE terminal_id = ? AND product_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                List<Held> rows = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    if (parameter != null) {
+                        stmt.setString(1, parameter);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(new Held(rs.getString("terminal_id"), rs.getInt("product_id"), rs.getInt("quantity")));
+                        }
+                    }
+                }
+
+                if (rows.isEmpty()) {
+                    conn.rollback();
+                    return Map.of();
+                }
+
+                Map<Integer, Integer> byProduct = new TreeMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                    for (Held row : rows) {
+                        stmt.setString(1, row.terminalId());
+                        stmt.setInt(2, row.productId());
+                        stmt.addBatch();
+                        byProduct.merge(row.productId(), row.quantity(), Integer::sum);
+                    }
+                    stmt.executeBatch();
+                }
+
+                conn.commit();
+                return byProduct;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to release stock reservations: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // AVAILABILITY
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Locks the given product rows and returns the units of each that are
+     * available to sell: on hand, less the live reservations of other
+     * terminals. The locks are held until the caller's transaction ends, so
+     * no other terminal can reserve or sell those products meanwhile.
+     *
+     * @param conn         a connection with a transaction open and nothing read yet
+     * @param productIds   the products to lock
+     * @param terminalId   the terminal asking
+     * @param excludeOwn   true to leave the terminal's own reservations out of the
+     *                     subtraction (when selling them), false to subtract them too
+     * @return available units per product_id; products that do not exist are absent
+     * @throws SQLException if the query fails
+     */
+    static Map<Integer, Integer> availableStock(Connection conn, List<Integer> productIds, String terminalId,
+                                                boolean excludeOwn) throws SQLException {
+        List<Integer> ids = new ArrayList<>(productIds);
+        ids.sort(null);
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+
+        String lockSql = "SELECT product_id, stock_quantity FROM Products WHERE product_id IN (" + in
+                + ") ORDER BY product_id FOR UPDATE";
+        // A live reservation counts; so does this terminal's own row when it is not excluded,
+        // because reserving again revives it however old it is
+        String heldSql = "SELECT product_id, SUM(quantity) AS held FROM StockReservations WHERE product_id IN (" + in
+                + ") AND " + (excludeOwn ? "terminal_id <> ? AND expires_at >= NOW(3)"
+                                         : "(expires_at >= NOW(3) OR terminal_id = ?)")
+                + " GROUP BY product_id";
+
+        Map<Integer, Integer> available = new TreeMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    available.put(rs.getInt("product_id"), rs.getInt("stock_quantity"));
+                }
+            }
+        }
+
+        // This is the transaction's first plain read, so its snapshot is taken after the
+        // product locks above and sees every reservation committed before them. Every
+        // writer that adds to a product's reservations holds that product's lock.
+        try (PreparedStatement stmt = conn.prepareStatement(heldSql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            stmt.setString(ids.size() + 1, terminalId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int held = rs.getInt("held");
+                    available.computeIfPresent(rs.getInt("product_id"), (id, units) -> units - held);
+                }
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.reptitrack.dao;
+
+import org.example.reptitrack.models.Sale;
+
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * DAO class for writing completed sales to the Sales and SaleLines tables.
+ * <p>
+ * Sales are written in batches: one batched insert for the sale headers and
+ * one for all their lines, inside a single transaction. Sales whose sale_id
+ * is already recorded are skipped, so re-sending a batch after a failure is safe.
+ * </p>
+ * <p>
+ * The same transaction adds the batch to the hourly and daily rollups
+ * (SalesHourly and SalesDaily). Lines are summed in memory first, so each
+ * product-hour and product-day touched by the batch costs one upsert, and the
+ * rollups always match the ledger exactly. Daily rows are also split by the
+ * supplier recorded on the sale line.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class SaleDAO {
+
+    /**
+     * Running totals for one product in one rollup bucket.
+     */
+    private static final class Totals {
+        String productName;
+        String category;
+        long units;
+        long revenueCents;
+    }
+
+    private record HourKey(LocalDateTime hourStart, int productId) {}
+
+    private record DayKey(LocalDate saleDate, int productId, String supplier) {}
+
+    // Upserts run in key order so concurrent terminals lock rollup rows in the same order
+    private static final Comparator<HourKey> HOUR_ORDER =
+            Comparator.comparing(HourKey::hourStart).thenComparingInt(HourKey::productId);
+    private static final Comparator<DayKey> DAY_ORDER =
+            Comparator.comparing(DayKey::saleDate).thenComparingInt(DayKey::productId)
+                    .thenComparing(DayKey::supplier);
+
+    // ─────────────────────────────────────────────────────────────
+    // CREATE
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Inserts a batch of sales and their lines, and adds them to the rollups,
+     * in one transaction. Sales already in the ledger are skipped.
+     *
+     * @param sales the sales to write
+     * @return true if the batch was committed, false if it was rolled back
+     */
+    public static boolean insertSales(List<Sale> sales) {
+        if (sales.isEmpty()) {
+            return true;
+        }
+
+        String saleSql = """
+            INSERT IGNORE INTO Sales (sale_id, sold_at, payment_method, subtotal_cents,
+                                      discount_cents, tax_cents, total_cents)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+        String lineSql = """
+            INSERT IGNORE INTO SaleLines (sale_id, line_no, product_id, product_name, category, supplier,
+                                          quantity, unit_price_cents, discount_cents, tax_cents)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                List<Sale> newSales = withoutRecorded(conn, sales);
+
+                try (PreparedStatement stmt = conn.prepareStatement(saleSql)) {
+                    for (Sale sale : newSales) {
+                        stmt.setString(1, sale.saleId());
+                        stmt.setObject(2, soldAt(sale));
+                        stmt.setString(3, sale.paymentMethod());
+                        stmt.setLong(4, sale.subtotalCents());
+                        stmt.setLong(5, sale.discountCents());
+                        stmt.setLong(6, sale.taxCents());
+                        stmt.setLong(7, sale.totalCents());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(lineSql)) {
+                    for (Sale sale : newSales) {
+                        int lineNo = 1;
+                        for (Sale.Line line : sale.lines()) {
+                            stmt.setString(1, sale.saleId());
+                            stmt.setInt(2, lineNo++);
+                            stmt.setInt(3, line.productId());
+                            stmt.setString(4, line.productName());
+                            stmt.setString(5, line.category());
+                            stmt.setString(6, line.supplier());
+                            stmt.setInt(7, line.quantity());
+                            stmt.setLong(8, line.unitPriceCents());
+                            stmt.setLong(9, line.discountCents());
+                            stmt.setLong(10, line.taxCents());
+                            stmt.addBatch();
+                        }
+                    }
+                    stmt.executeBatch();
+                }
+
+                addToRollups(conn, newSales);
+
+                conn.commit();
+                System.out.println("✅ Recorded " + newSales.size() + " sale(s) in the ledger.");
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to record sales: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Filters out sales whose sale_id is already in the ledger, so a re-sent
+     * sale is neither stored nor counted in the rollups twice.
+     */
+    private static List<Sale> withoutRecorded(Connection conn, List<Sale> sales) throws SQLException {
+        String sql = "SELECT sale_id FROM Sales WHERE sale_id IN ("
+                + String.join(", ", Collections.nCopies(sales.size(), "?")) + ")";
+
+        Set<String> recorded = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < sales.size(); i++) {
+                stmt.setString(i + 1, sales.get(i).saleId());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    recorded.add(rs.getString("sale_id"));
+                }
+            }
+        }
+
+        if (recorded.isEmpty()) {
+            return sales;
+        }
+        List<Sale> newSales = new ArrayList<>(sales.size() - recorded.size());
+        for (Sale sale : sales) {
+            if (!recorded.contains(sale.saleId())) {
+                newSales.add(sale);
+            }
+        }
+        return newSales;
+    }
+
+    /**
+     * Sums the lines of a batch per product-hour and product-day, then adds
+     * each sum to its rollup row with one batched upsert per table.
+     */
+    private static void addToRollups(Connection conn, List<Sale> sales) throws SQLException {
+        Map<HourKey, Totals> hourly = new TreeMap<>(HOUR_ORDER);
+        Map<DayKey, Totals> daily = new TreeMap<>(DAY_ORDER);
+
+        for (Sale sale : sales) {
+            LocalDateTime soldAt = soldAt(sale);
+            LocalDateTime hour = soldAt.truncatedTo(ChronoUnit.HOURS);
+            LocalDate day = soldAt.toLocalDate();
+
+            for (Sale.Line line : sale.lines()) {
+                long revenue = line.unitPriceCents() * line.quantity() - line.discountCents();
+                add(hourly.computeIfAbsent(new HourKey(hour, line.productId()), k -> new Totals()), line, revenue);
+                add(daily.computeIfAbsent(new DayKey(day, line.productId(), line.supplier()), k -> new Totals()), line, revenue);
+            }
+        }
+
+        String hourlySql = """
+            INSERT INTO SalesHourly (hour_start, product_id, category, units, revenue_cents)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE category = VALUES(category),
+                                    units = units + VALUES(units),
+                                    revenue_cents = revenue_cents + VALUES(revenue_cents)
+        """;
+        String dailySql = """
+            INSERT INTO SalesDaily (sale_date, product_id, product_name, category, supplier,
+                                    units, revenue_cents)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE product_name = VALUES(product_name),
+                                    category = VALUES(category),
+                                    units = units + VALUES(units),
+                                    revenue_cents = revenue_cents + VALUES(revenue_cents)
+        """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(hourlySql)) {
+            for (Map.Entry<HourKey, Totals> entry : hourly.entrySet()) {
+                Totals totals = entry.getValue();
+                stmt.setObject(1, entry.getKey().hourStart());
+                stmt.setInt(2, entry.getKey().productId());
+                stmt.setString(3, totals.category);
+                stmt.setLong(4, totals.units);
+                stmt.setLong(5, totals.revenueCents);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(dailySql)) {
+            for (Map.Entry<DayKey, Totals> entry : daily.entrySet()) {
+                Totals totals = entry.getValue();
+                stmt.setDate(1, Date.valueOf(entry.getKey().saleDate()));
+                stmt.setInt(2, entry.getKey().productId());
+                stmt.setString(3, totals.productName);
+                stmt.setString(4, totals.category);
+                stmt.setString(5, entry.getKey().supplier());
+                stmt.setLong(6, totals.units);
+                stmt.setLong(7, totals.revenueCents);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * The sale time as stored in Sales.sold_at: the till's local wall-clock time.
+     * Rollup buckets are this value truncated, the same rule the V4 backfill
+     * applies to the stored column, so live and backfilled rows always agree.
+     */
+    private static LocalDateTime soldAt(Sale sale) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(sale.soldAtMillis()), ZoneId.systemDefault());
+    }
+
+    private static void add(Totals totals, Sale.Line line, long revenueCents) {
+        totals.productName = line.productName();
+        totals.category = line.category();
+        totals.units += line.quantity();
+        totals.revenueCents += revenueCents;
+    }
+}
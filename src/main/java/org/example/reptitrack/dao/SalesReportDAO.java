@@ -0,0 +1,142 @@
+package org.example.reptitrack.dao;
+
+import org.example.reptitrack.models.SalesTotal;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO class for sales reports, read from the SalesHourly and SalesDaily rollups.
+ * <p>
+ * The rollups are kept current by {@link SaleDAO#insertSales(List)}, so each
+ * report reads one row per product per bucket in its range, however many
+ * sales were made.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class SalesReportDAO {
+
+    // ─────────────────────────────────────────────────────────────
+    // READ
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Revenue and units per category for each hour in a range.
+     *
+     * @param from first hour to include
+     * @param to   end of the range (exclusive)
+     * @return one row per category per hour with sales, in hour order
+     */
+    public static List<SalesTotal> getCategorySalesByHour(LocalDateTime from, LocalDateTime to) {
+        String sql = """
+            SELECT category, hour_start, SUM(units) AS units, SUM(revenue_cents) AS revenue_cents
+            FROM SalesHourly
+            WHERE hour_start >= ? AND hour_start < ?
+            GROUP BY hour_start, category
+            ORDER BY hour_start, category
+        """;
+
+        List<SalesTotal> totals = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new SalesTotal(rs.getString("category"),
+                            rs.getTimestamp("hour_start").toLocalDateTime(),
+                            rs.getLong("units"), rs.getLong("revenue_cents")));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load category sales: " + e.getMessage());
+        }
+        return totals;
+    }
+
+    /**
+     * Best-selling products by units over a range of days.
+     *
+     * @param from  first day to include
+     * @param to    last day to include
+     * @param limit maximum number of products to return
+     * @return products with the most units sold, highest first
+     */
+    public static List<SalesTotal> getTopSellers(LocalDate from, LocalDate to, int limit) {
+        String sql = """
+            SELECT product_id, MAX(product_name) AS product_name,
+                   SUM(units) AS units, SUM(revenue_cents) AS revenue_cents
+            FROM SalesDaily
+            WHERE sale_date BETWEEN ? AND ?
+            GROUP BY product_id
+            ORDER BY units DESC, revenue_cents DESC
+            LIMIT ?
+        """;
+
+        List<SalesTotal> totals = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            stmt.setInt(3, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new SalesTotal(rs.getString("product_name"), null,
+                            rs.getLong("units"), rs.getLong("revenue_cents")));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load top sellers: " + e.getMessage());
+        }
+        return totals;
+    }
+
+    /**
+     * Units and revenue per supplier over a range of days. Sales are grouped
+     * by the supplier recorded at the time of sale, so later product edits
+     * and deletions do not move past sales.
+     *
+     * @param from first day to include
+     * @param to   last day to include
+     * @return one row per supplier, most units first
+     */
+    public static List<SalesTotal> getSupplierSales(LocalDate from, LocalDate to) {
+        String sql = """
+            SELECT supplier, SUM(units) AS units, SUM(revenue_cents) AS revenue_cents
+            FROM SalesDaily
+            WHERE sale_date BETWEEN ? AND ?
+            GROUP BY supplier
+            ORDER BY units DESC
+        """;
+
+        List<SalesTotal> totals = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new SalesTotal(rs.getString("supplier"), null,
+                            rs.getLong("units"), rs.getLong("revenue_cents")));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Failed to load supplier sales: " + e.getMessage());
+        }
+        return totals;
+    }
+}
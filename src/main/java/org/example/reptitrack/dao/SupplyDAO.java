@@ -5,6 +5,7 @@ import org.example.reptitrack.models.Product;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * DAO class for managing the Supplies category table.
@@ -25,14 +26,14 @@ public class SupplyDAO {
     /**
      * Retrieves all supply products by joining Supplies and Products tables.
      *
-     * @return list of supply product objects
+     * @return list of supply product objects, or empty if the query failed
      */
-    public static List<Product> getAllSupplies() {
+    public static Optional<List<Product>> getAllSupplies() {
         List<Product> supplies = new ArrayList<>();
 
         String sql = """
             SELECT s.supply_id, p.product_id, p.product_name, p.category, 
-                   p.stock_quantity, p.supplier, p.price, p.min_stock_level
+                   p.stock_quantity, p.supplier, p.price, p.min_stock_level, p.version
             FROM Supplies s
             JOIN Products p ON s.product_id = p.product_id
         """;
@@ -42,7 +43,7 @@ public class SupplyDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                supplies.add(new Product(
+                Product supply = new Product(
                         rs.getInt("product_id"),
                         rs.getString("product_name"),
                         "Supplies",
@@ -50,14 +51,17 @@ public class SupplyDAO {
                         rs.getString("supplier"),
                         rs.getDouble("price"),
                         rs.getInt("min_stock_level")
-                ));
+                );
+                supply.setVersion(rs.getInt("version"));
+                supplies.add(supply);
             }
 
         } catch (SQLException e) {
             System.err.println("❌ Failed to fetch supplies: " + e.getMessage());
+            return Optional.empty();
         }
 
-        return supplies;
+        return Optional.of(supplies);
     }
 
     // ───────────────────────────────────────────────────────
@@ -66,35 +70,14 @@ public class SupplyDAO {
 
     /**
      * Inserts a new supply into both the Supplies and Products tables.
+     * Delegates to {@link ProductRepository#insert(String, Product)}, which writes
+     * both rows in one transaction.
      *
-     * @param product the product data to insert
+     * @param product product object representing the supply
+     * @return generated product_id, or -1 if nothing was written
      */
-    public static void insertSupply(Product product) {
-        int productId = ProductDAO.insertProductAndReturnId(product);
-
-        String sql = """
-            INSERT INTO Supplies (product_name, category, stock_quantity, 
-                                  supplier, price, min_stock_level, product_id)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, productId);
-
-            stmt.executeUpdate();
-            System.out.println("✅ Supply added to Supplies and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to insert supply: " + e.getMessage());
-        }
+    public static int insertSupply(Product product) {
+        return ProductRepository.insert("Supplies", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -103,36 +86,13 @@ public class SupplyDAO {
 
     /**
      * Updates a supply product in both the Supplies and Products tables.
+     * Delegates to {@link ProductRepository#update(String, Product)}.
      *
-     * @param product the updated product data
+     * @param product updated product object
+     * @return number of Products rows updated
      */
-    public static void updateSupply(Product product) {
-        ProductDAO.updateProduct(product);
-
-        String sql = """
-            UPDATE Supplies
-            SET product_name = ?, category = ?, stock_quantity = ?, 
-                supplier = ?, price = ?, min_stock_level = ?
-            WHERE product_id = ?
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getProductName());
-            stmt.setString(2, product.getCategory());
-            stmt.setInt(3, product.getStockQuantity());
-            stmt.setString(4, product.getSupplier());
-            stmt.setDouble(5, product.getPrice());
-            stmt.setInt(6, product.getMinStockLevel());
-            stmt.setInt(7, product.getId());
-
-            stmt.executeUpdate();
-            System.out.println("✅ Supply updated in Supplies and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to update supply: " + e.getMessage());
-        }
+    public static int updateSupply(Product product) {
+        return ProductRepository.update("Supplies", product);
     }
 
     // ───────────────────────────────────────────────────────
@@ -141,23 +101,12 @@ public class SupplyDAO {
 
     /**
      * Deletes a supply product from both the Supplies and Products tables.
+     * Delegates to {@link ProductRepository#delete(String, int)}.
      *
-     * @param productId the ID of the product to delete
+     * @param productId the shared product_id to delete
+     * @return number of Products rows deleted
      */
-    public static void deleteSupply(int productId) {
-        String sql = "DELETE FROM Supplies WHERE product_id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, productId);
-            stmt.executeUpdate();
-
-            ProductDAO.deleteProductById(productId);
-            System.out.println("🗑️ Supply deleted from Supplies and Products.");
-
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to delete supply: " + e.getMessage());
-        }
+    public static int deleteSupply(int productId) {
+        return ProductRepository.delete("Supplies", productId);
     }
 }
@@ -19,13 +19,14 @@ public class UserDAO {
 
     /**
      * Validates the provided username and password against the database.
+     * Only checks that a matching row exists; no user columns are fetched.
      *
      * @param username the username entered by the user
      * @param password the plaintext password entered
      * @return true if valid credentials were found, false otherwise
      */
     public static boolean authenticate(String username, String password) {
-        String sql = "SELECT * FROM Users WHERE username = ? AND password = ?";
+        String sql = "SELECT 1 FROM Users WHERE username = ? AND password = ? LIMIT 1";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -27,6 +27,9 @@ public class Product {
     private double price;
     private int minStockLevel;
 
+    // Row version, bumped by every write to the Products row (0 until read from the database)
+    private int version;
+
     // ─────────────────────────────────────────────────────────────
     // Constructor
     // ─────────────────────────────────────────────────────────────
@@ -98,6 +101,10 @@ public class Product {
         return minStockLevel;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Setters
     // ─────────────────────────────────────────────────────────────
@@ -129,4 +136,8 @@ public class Product {
     public void setMinStockLevel(int minStockLevel) {
         this.minStockLevel = minStockLevel;
     }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,43 @@
+package org.example.reptitrack.models;
+
+import java.util.List;
+
+/**
+ * Represents a completed sale as recorded in the sales ledger.
+ * <p>
+ * All amounts are in whole cents. The sale ID is generated at the till, so a
+ * sale written twice (for example when a spilled batch is retried) is stored once.
+ * </p>
+ *
+ * @param saleId        unique ID generated when the sale completes
+ * @param soldAtMillis  completion time, in epoch milliseconds
+ * @param paymentMethod "Cash" or "Card"
+ * @param subtotalCents total after discounts, before tax
+ * @param discountCents total discounts
+ * @param taxCents      total tax
+ * @param totalCents    amount charged
+ * @param lines         the items sold, in cart order
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public record Sale(String saleId, long soldAtMillis, String paymentMethod,
+                   long subtotalCents, long discountCents, long taxCents, long totalCents,
+                   List<Line> lines) {
+
+    /**
+     * One item line of a sale. Product details are copied so the ledger stays
+     * readable after the product is edited or deleted.
+     *
+     * @param productId      the product sold
+     * @param productName    product name at the time of sale
+     * @param category       product category at the time of sale
+     * @param supplier       product supplier at the time of sale
+     * @param quantity       units sold
+     * @param unitPriceCents unit price charged
+     * @param discountCents  discount taken off the line
+     * @param taxCents       tax charged on the line
+     */
+    public record Line(int productId, String productName, String category, String supplier, int quantity,
+                       long unitPriceCents, long discountCents, long taxCents) {}
+}
@@ -0,0 +1,16 @@
+package org.example.reptitrack.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one row of a sales report, read from the pre-aggregated rollups.
+ *
+ * @param label        what the row totals: a category, product name or supplier
+ * @param bucketStart  start of the hour the row covers, or null for a whole-range total
+ * @param units        units sold
+ * @param revenueCents revenue after discounts, before tax, in cents
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public record SalesTotal(String label, LocalDateTime bucketStart, long units, long revenueCents) {}
@@ -0,0 +1,144 @@
+package org.example.reptitrack.services;
+
+import javafx.application.Platform;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs DAO calls off the JavaFX Application Thread.
+ * <p>
+ * Each call runs on its own virtual thread, so a blocking JDBC call never
+ * freezes the UI. Results and errors are delivered back on the FX thread
+ * through {@link Platform#runLater(Runnable)}.
+ * </p>
+ * <p>
+ * Reads started with {@link #fetch} belong to the current screen and are
+ * cancelled by {@link #cancelPending()} when the user navigates away; their
+ * callbacks then never run. Writes started with {@link #execute} are never
+ * cancelled by navigation.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ *     AsyncDataService.fetch(() -> ProductDAO.getProductById(id), product -> nameLabel.setText(product.getProductName()));
+ * }</pre>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class AsyncDataService {
+
+    // One virtual thread per task; blocking JDBC calls park cheaply
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Screen-scoped reads that should be cancelled on navigation
+    private static final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+
+    // ─────────────────────────────────────────────────────────────
+    // Background Execution
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Runs a task on a virtual thread. Cancelling the returned future only
+     * discards the result: a task that has started runs to completion, so a
+     * JDBC read or pool wait is never interrupted part way through.
+     * A task cancelled before it starts is skipped.
+     *
+     * @param task the blocking work (typically a DAO call)
+     * @param <T>  the result type
+     * @return a future completed with the task's result
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        executor.execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Loads data for the current screen in the background and hands it to
+     * {@code onSuccess} on the FX thread. The load is cancelled if the user
+     * navigates away first.
+     *
+     * @param query     the blocking read
+     * @param onSuccess receives the result on the FX thread
+     * @param <T>       the result type
+     * @return the underlying future, which can be cancelled directly
+     */
+    public static <T> CompletableFuture<T> fetch(Callable<T> query, Consumer<T> onSuccess) {
+        CompletableFuture<T> future = supply(query);
+        pending.add(future);
+        future.whenComplete((value, error) -> pending.remove(future));
+
+        deliverOnFxThread(future, onSuccess,
+                error -> System.err.println("❌ Background load failed: " + error.getMessage()));
+        return future;
+    }
+
+    /**
+     * Runs a write in the background and reports the outcome on the FX thread.
+     * Writes are not cancelled by navigation.
+     *
+     * @param task      the blocking write
+     * @param onSuccess receives the result on the FX thread
+     * @param onError   receives any failure on the FX thread
+     * @param <T>       the result type
+     * @return the underlying future
+     */
+    public static <T> CompletableFuture<T> execute(Callable<T> task, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        CompletableFuture<T> future = supply(task);
+        deliverOnFxThread(future, onSuccess, onError);
+        return future;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Cancellation
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Cancels every outstanding screen-scoped read. Called when the user
+     * leaves a screen so slow responses do not land on a scene that is gone.
+     * Reads already running finish in the background; only their FX
+     * callbacks are dropped.
+     */
+    public static void cancelPending() {
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(false);
+        }
+        pending.clear();
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    private static <T> void deliverOnFxThread(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((value, error) -> Platform.runLater(() -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                onError.accept(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                onSuccess.accept(value);
+            }
+        }));
+    }
+}
@@ -0,0 +1,435 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of cart changes, so an in-progress sale survives a crash.
+ * <p>
+ * Every add, quantity change and removal is appended to
+ * {@code CART_JOURNAL_PATH} (default {@code cart.journal}) as a small
+ * length-prefixed, CRC-checked record. Writes go straight to the file through
+ * a {@link FileChannel}, so they survive the process dying. A background thread
+ * group-commits them to disk with one {@code fsync} every
+ * {@code CART_JOURNAL_SYNC_MS} (default 50 ms) while there are new writes,
+ * instead of one per keystroke.
+ * </p>
+ * <p>
+ * On startup the journal is replayed to rebuild the cart. A torn record at
+ * the end (from a crash mid-write) is detected by its length or checksum and
+ * cut off. Clearing the cart, which happens after every completed sale,
+ * truncates the journal to empty, so replay only ever reads the current sale.
+ * </p>
+ * <p>
+ * Before a sale is committed, the units being sold are journaled and synced
+ * at once. Replay takes those units out of the cart unless the sale was
+ * later recorded as failed, so a crash between committing a sale and
+ * clearing the cart can never restore (and re-reserve) goods already sold.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class CartJournal {
+
+    private static final byte OP_SET = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_SELLING = 3;
+    private static final byte OP_SALE_FAILED = 4;
+
+    // Record header: payload length + CRC32 of the payload
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024;
+
+    private final Path path;
+    private volatile FileChannel channel;
+    private final ScheduledExecutorService syncer;
+    private volatile boolean dirty;
+    private volatile boolean failed;
+
+    /**
+     * Opens (or creates) the journal file configured in .env.
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    public CartJournal() throws IOException {
+        this(Path.of(DatabaseConfig.get("CART_JOURNAL_PATH", "cart.journal")),
+                DatabaseConfig.getLong("CART_JOURNAL_SYNC_MS", 50));
+    }
+
+    /**
+     * Opens (or creates) a journal file.
+     *
+     * @param path   the journal file
+     * @param syncMs how often pending writes are forced to disk
+     * @throws IOException if the file cannot be opened
+     */
+    public CartJournal(Path path, long syncMs) throws IOException {
+        this.path = path;
+        this.channel = open(path);
+
+        this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cart-journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, syncMs, syncMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Recording
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Records a cart line as added or changed, with its current quantity.
+     *
+     * @param line the cart line
+     */
+    public void recordSet(Product line) {
+        append(out -> {
+            out.writeByte(OP_SET);
+            writeLine(out, line);
+        });
+    }
+
+    /**
+     * Records a cart line as removed.
+     *
+     * @param productId the product ID of the line
+     */
+    public void recordRemove(int productId) {
+        append(out -> {
+            out.writeByte(OP_REMOVE);
+            out.writeInt(productId);
+        });
+    }
+
+    /**
+     * Records that a sale of the given units is about to be committed, and
+     * syncs at once so the record is on disk before the commit starts.
+     *
+     * @param sold units being sold per product_id
+     */
+    public synchronized void recordSelling(Map<Integer, Integer> sold) {
+        append(out -> {
+            out.writeByte(OP_SELLING);
+            out.writeInt(sold.size());
+            for (Map.Entry<Integer, Integer> entry : sold.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        });
+        forceNow();
+    }
+
+    /**
+     * Records that the sale last passed to {@link #recordSelling} was rolled
+     * back, so its units are back in the cart.
+     */
+    public void recordSaleFailed() {
+        append(out -> out.writeByte(OP_SALE_FAILED));
+    }
+
+    /**
+     * Records the cart as cleared by truncating the journal to empty and syncing
+     * at once: nothing before a clear is needed for replay.
+     */
+    public synchronized void recordClear() {
+        if (failed) {
+            return;
+        }
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Recovery
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Replays the journal into the cart it describes. A torn record at the end
+     * is cut off. If the log holds superseded records, it is compacted to one
+     * record per line.
+     *
+     * @return the recovered cart lines, in the order they were first added
+     */
+    public synchronized List<Product> replay() {
+        long start = System.nanoTime();
+        Map<Integer, Product> lines = new LinkedHashMap<>();
+        Replay state = new Replay(lines);
+        int records = 0;
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            channel.read(buffer, 0);
+            buffer.flip();
+
+            long validBytes = 0;
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int crc = buffer.getInt();
+                if (length <= 0 || length > MAX_PAYLOAD_BYTES || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                if (checksum(payload) != crc) {
+                    break;
+                }
+                apply(payload, state);
+                records++;
+                validBytes = buffer.position();
+            }
+
+            if (validBytes < channel.size()) {
+                System.err.println("❌ Cart journal had a torn record; discarding "
+                        + (channel.size() - validBytes) + " trailing bytes.");
+                channel.truncate(validBytes);
+            }
+            channel.position(validBytes);
+
+            if (state.beforeSale != null) {
+                System.err.println("❌ Cart journal ends in a sale that may have committed; its units were not restored.");
+            }
+            if (records > lines.size()) {
+                compact(lines.values());
+            }
+
+        } catch (IOException e) {
+            fail(e);
+        }
+
+        if (!lines.isEmpty()) {
+            System.out.printf("✅ Restored %d cart line(s) from journal in %.1f ms%n",
+                    lines.size(), (System.nanoTime() - start) / 1_000_000.0);
+        }
+        return new ArrayList<>(lines.values());
+    }
+
+    /**
+     * Syncs pending writes and stops the background syncer.
+     */
+    public void close() {
+        syncer.shutdown();
+        sync();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to close cart journal: " + e.getMessage());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * The cart being rebuilt, plus its lines as they were before the sale in
+     * progress (null when no sale is in progress).
+     */
+    private static final class Replay {
+        final Map<Integer, Product> lines;
+        Map<Integer, Product> beforeSale;
+
+        Replay(Map<Integer, Product> lines) {
+            this.lines = lines;
+        }
+    }
+
+    private synchronized void append(RecordWriter writer) {
+        if (failed) {
+            return;
+        }
+        try {
+            channel.write(encode(writer));
+            dirty = true;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private synchronized void forceNow() {
+        if (failed) {
+            return;
+        }
+        try {
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Group commit: one fsync covers every record appended since the last one.
+     */
+    private void sync() {
+        if (!dirty || failed) {
+            return;
+        }
+        dirty = false;
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Replaced by compaction, which forced the new file itself
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Rewrites the journal as one record per line. The new log is written to a
+     * temporary file and atomically renamed over the old one, so a crash during
+     * compaction leaves either the old or the new log, never a partial one.
+     */
+    private void compact(Collection<Product> lines) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Product line : lines) {
+                out.write(encode(o -> {
+                    o.writeByte(OP_SET);
+                    writeLine(o, line);
+                }));
+            }
+            out.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        FileChannel old = channel;
+        channel = open(path);
+        channel.position(channel.size());
+        old.close();
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer encode(RecordWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        writer.write(new DataOutputStream(bytes));
+        byte[] payload = bytes.toByteArray();
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putInt(checksum(payload)).put(payload);
+        record.flip();
+        return record;
+    }
+
+    private static void apply(byte[] payload, Replay state) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        Map<Integer, Product> lines = state.lines;
+        switch (in.readByte()) {
+            case OP_SET -> {
+                Product line = readLine(in);
+                Product existing = lines.get(line.getId());
+                if (existing != null) {
+                    existing.setStockQuantity(line.getStockQuantity());
+                } else {
+                    lines.put(line.getId(), line);
+                }
+            }
+            case OP_REMOVE -> lines.remove(in.readInt());
+            case OP_SELLING -> {
+                // Take the units out now; a later OP_SALE_FAILED puts them back
+                state.beforeSale = new LinkedHashMap<>();
+                for (Product line : lines.values()) {
+                    state.beforeSale.put(line.getId(), copy(line));
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    int id = in.readInt();
+                    int sold = in.readInt();
+                    Product line = lines.get(id);
+                    if (line != null && line.getStockQuantity() > sold) {
+                        line.setStockQuantity(line.getStockQuantity() - sold);
+                    } else {
+                        lines.remove(id);
+                    }
+                }
+            }
+            case OP_SALE_FAILED -> {
+                if (state.beforeSale != null) {
+                    lines.clear();
+                    lines.putAll(state.beforeSale);
+                    state.beforeSale = null;
+                }
+            }
+            default -> throw new IOException("Unknown cart journal record");
+        }
+    }
+
+    private static void writeLine(DataOutputStream out, Product line) throws IOException {
+        out.writeInt(line.getId());
+        out.writeInt(line.getStockQuantity());
+        out.writeDouble(line.getPrice());
+        out.writeInt(line.getMinStockLevel());
+        out.writeUTF(nullToEmpty(line.getProductName()));
+        out.writeUTF(nullToEmpty(line.getCategory()));
+        out.writeUTF(nullToEmpty(line.getSupplier()));
+    }
+
+    private static Product readLine(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        int quantity = in.readInt();
+        double price = in.readDouble();
+        int minStock = in.readInt();
+        String name = in.readUTF();
+        String category = in.readUTF();
+        String supplier = in.readUTF();
+        return new Product(id, name, category, quantity, supplier, price, minStock);
+    }
+
+    private static Product copy(Product line) {
+        return new Product(line.getId(), line.getProductName(), line.getCategory(), line.getStockQuantity(),
+                line.getSupplier(), line.getPrice(), line.getMinStockLevel());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        System.err.println("❌ Cart journal disabled after I/O error: " + e.getMessage());
+    }
+}
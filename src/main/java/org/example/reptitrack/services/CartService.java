@@ -1,8 +1,21 @@
 package org.example.reptitrack.services;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import org.example.reptitrack.models.Product;
+import org.example.reptitrack.models.Sale;
+import org.example.reptitrack.utils.Money;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Singleton service class to manage the shopping cart in ReptiTrack.
@@ -10,6 +23,24 @@ import org.example.reptitrack.models.Product;
  * Supports adding, removing, clearing items, and calculating the cart total.
  * Used to persist the cart state across views like MainDashboard and Checkout.
  * </p>
+ * <p>
+ * Lines are indexed by product_id alongside the observable list, and the
+ * totals are kept up to date on every change, so adding to or totalling a
+ * cart with hundreds of lines costs the same as for a cart with one.
+ * Each line is priced by {@link PricingEngine}; totals are exact whole cents.
+ * The cart is only touched from the JavaFX Application Thread.
+ * </p>
+ * <p>
+ * Every change is written to a {@link CartJournal}, and the cart is rebuilt
+ * from it when the service is created, so a sale in progress survives the
+ * application crashing.
+ * </p>
+ * <p>
+ * Units in the cart are held through {@link StockReservations}, so another
+ * terminal cannot sell them. Adding units waits for the reservation before
+ * the cart changes; removing units changes the cart at once and releases
+ * them in the background.
+ * </p>
  *
  * @author Jarrod
  * @since 2025-04-06
@@ -19,13 +50,37 @@ public class CartService {
     // Singleton instance
     private static CartService instance;
 
-    // Observable list of items in the cart
+    // Observable list of items in the cart (display order)
     private final ObservableList<Product> cartItems = FXCollections.observableArrayList();
 
+    // The same lines, indexed by product_id
+    private final Map<Integer, Product> linesById = new HashMap<>();
+
+    private final PricingEngine pricing = PricingEngine.getInstance();
+    private final StockReservations reservations = StockReservations.getInstance();
+
+    // Running sums over all lines, in cents
+    private long grossCents;
+    private long discountCents;
+    private long taxCents;
+
+    // Crash-recovery log of cart changes (null if the file could not be opened)
+    private final CartJournal journal = openJournal();
+
     /**
      * Private constructor to enforce singleton pattern.
+     * Restores any cart left in the journal by a previous run.
      */
-    private CartService() {}
+    private CartService() {
+        if (journal != null) {
+            for (Product line : journal.replay()) {
+                linesById.put(line.getId(), line);
+                cartItems.add(line);
+                addToTotals(line, 1);
+                reserveRestored(line);
+            }
+        }
+    }
 
     /**
      * Gets the singleton instance of CartService.
@@ -40,7 +95,8 @@ public class CartService {
     }
 
     /**
-     * Returns the current cart item list.
+     * Returns the current cart item list. Change it only through this service,
+     * so the index and totals stay in step.
      *
      * @return observable list of products in the cart
      */
@@ -48,30 +104,26 @@ public class CartService {
         return cartItems;
     }
 
+    // ─────────────────────────────────────────────────────────────
+    // Cart Changes
+    // ─────────────────────────────────────────────────────────────
+
     /**
-     * Adds a product to the cart. If the product already exists,
-     * increments the quantity by one instead of duplicating the entry.
+     * Reserves one unit of a product and then adds it to the cart. If the
+     * product already exists, increments the quantity by one instead of
+     * duplicating the entry.
      *
-     * @param product the product to add
+     * @param product  the product to add
+     * @param onResult called on the FX thread with true if the unit was added,
+     *                 or false if it could not be reserved
      */
-    public void addItem(Product product) {
-        for (Product item : cartItems) {
-            if (item.getId() == product.getId()) {
-                item.setStockQuantity(item.getStockQuantity() + 1);
-                return;
+    public void addItem(Product product, Consumer<Boolean> onResult) {
+        whenReserved(product.getId(), 1, reserved -> {
+            if (reserved) {
+                addLine(product);
             }
-        }
-
-        // Add new product with quantity 1
-        cartItems.add(new Product(
-                product.getId(),
-                product.getProductName(),
-                product.getCategory(),
-                1,
-                product.getSupplier(),
-                product.getPrice(),
-                product.getMinStockLevel()
-        ));
+            onResult.accept(reserved);
+        });
     }
 
     /**
@@ -80,25 +132,155 @@ public class CartService {
      * @param product the product to remove
      */
     public void removeItem(Product product) {
-        cartItems.remove(product);
+        Product line = linesById.remove(product.getId());
+        if (line != null) {
+            cartItems.remove(line);
+            addToTotals(line, -1);
+            reservations.release(line.getId(), line.getStockQuantity());
+            if (journal != null) {
+                journal.recordRemove(line.getId());
+            }
+        }
     }
 
     /**
-     * Clears all items from the cart.
+     * Clears all items from the cart and releases their reserved stock.
      */
     public void clearCart() {
+        for (Product line : cartItems) {
+            reservations.release(line.getId(), line.getStockQuantity());
+        }
+        clearLines();
+    }
+
+    /**
+     * Journals that a sale of the cart is about to be committed. Called before
+     * the commit starts, so if the application crashes before the cart is
+     * cleared, the sold units are not restored on the next start.
+     *
+     * @param sale the sale about to be committed from this cart
+     */
+    public void beginSale(Sale sale) {
+        if (journal != null) {
+            Map<Integer, Integer> sold = new LinkedHashMap<>();
+            for (Sale.Line line : sale.lines()) {
+                sold.merge(line.productId(), line.quantity(), Integer::sum);
+            }
+            journal.recordSelling(sold);
+        }
+    }
+
+    /**
+     * Journals that the sale passed to {@link #beginSale} was rolled back, so
+     * the cart is restored in full after a crash.
+     */
+    public void saleFailed() {
+        if (journal != null) {
+            journal.recordSaleFailed();
+        }
+    }
+
+    /**
+     * Takes the units of a committed sale out of the cart. The sale used up
+     * their reservations, so nothing is released. Only the quantities in the
+     * sale are removed; anything else in the cart keeps its reservation.
+     *
+     * @param sale the sale that was committed from this cart
+     */
+    public void removeSold(Sale sale) {
+        for (Sale.Line sold : sale.lines()) {
+            reservations.sold(sold.productId(), sold.quantity());
+            Product line = linesById.get(sold.productId());
+            if (line == null) {
+                continue;
+            }
+            if (line.getStockQuantity() > sold.quantity()) {
+                changeQuantity(line, -sold.quantity());
+                continue;
+            }
+            linesById.remove(line.getId());
+            cartItems.remove(line);
+            addToTotals(line, -1);
+            if (journal != null) {
+                journal.recordRemove(line.getId());
+            }
+        }
+
+        if (linesById.isEmpty()) {
+            clearLines();
+        }
+    }
+
+    /**
+     * Empties the cart without touching reservations, and compacts the journal to empty.
+     */
+    private void clearLines() {
+        linesById.clear();
         cartItems.clear();
+        grossCents = 0;
+        discountCents = 0;
+        taxCents = 0;
+        if (journal != null) {
+            journal.recordClear();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Totals
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Calculates the total cost of the cart after discounts, before tax.
+     *
+     * @return subtotal in cents
+     */
+    public long getSubtotalCents() {
+        return grossCents - discountCents;
+    }
+
+    /**
+     * Returns the discounts and promotions taken off the cart.
+     *
+     * @return discount in cents
+     */
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    /**
+     * Returns the tax on the cart, summed over lines taxed at their category rate.
+     *
+     * @return tax in cents
+     */
+    public long getTaxCents() {
+        return taxCents;
+    }
+
+    /**
+     * Returns the amount owing, including tax.
+     *
+     * @return subtotal plus tax, in cents
+     */
+    public long getTotalCents() {
+        return grossCents - discountCents + taxCents;
     }
 
     /**
-     * Calculates the total cost of the cart.
+     * Builds the ledger record for selling the current cart, priced exactly as
+     * shown at checkout.
      *
-     * @return total value (price × quantity for each product)
+     * @param paymentMethod "Cash" or "Card"
+     * @return the completed sale, with a newly generated sale ID
      */
-    public double getCartTotal() {
-        return cartItems.stream()
-                .mapToDouble(p -> p.getPrice() * p.getStockQuantity())
-                .sum();
+    public Sale toSale(String paymentMethod) {
+        List<Sale.Line> lines = new ArrayList<>(cartItems.size());
+        for (Product line : cartItems) {
+            PricingEngine.LinePrice price = pricing.price(line);
+            lines.add(new Sale.Line(line.getId(), line.getProductName(), line.getCategory(),
+                    Objects.requireNonNullElse(line.getSupplier(), "Unknown"), line.getStockQuantity(), Money.ofDollars(line.getPrice()), price.discount(), price.tax()));
+        }
+        return new Sale(UUID.randomUUID().toString(), System.currentTimeMillis(), paymentMethod,
+                getSubtotalCents(), getDiscountCents(), getTaxCents(), getTotalCents(), lines);
     }
 
     /**
@@ -109,4 +291,91 @@ public class CartService {
     public boolean isEmpty() {
         return cartItems.isEmpty();
     }
+
+    /**
+     * Flushes the cart journal to disk. Called when the application exits.
+     */
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Adds one unit of a product that has just been reserved.
+     */
+    private void addLine(Product product) {
+        Product line = linesById.get(product.getId());
+        if (line != null) {
+            changeQuantity(line, 1);
+            return;
+        }
+
+        // Add new product with quantity 1
+        line = new Product(
+                product.getId(),
+                product.getProductName(),
+                product.getCategory(),
+                1,
+                product.getSupplier(),
+                product.getPrice(),
+                product.getMinStockLevel()
+        );
+        linesById.put(line.getId(), line);
+        cartItems.add(line);
+        addToTotals(line, 1);
+        record(line);
+    }
+
+    private void changeQuantity(Product line, int delta) {
+        addToTotals(line, -1);
+        line.setStockQuantity(line.getStockQuantity() + delta);
+        addToTotals(line, 1);
+        record(line);
+    }
+
+    /**
+     * Reserves units in the background and reports the outcome on the FX thread.
+     */
+    private void whenReserved(int productId, int quantity, Consumer<Boolean> onResult) {
+        reservations.reserve(productId, quantity).whenComplete((reserved, error) ->
+                Platform.runLater(() -> onResult.accept(error == null && reserved)));
+    }
+
+    /**
+     * Re-reserves a line restored from the journal. If the stock has gone,
+     * the line stays in the cart and checkout rejects the sale if it is still short.
+     */
+    private void reserveRestored(Product line) {
+        reservations.reserve(line.getId(), line.getStockQuantity()).thenAccept(reserved -> {
+            if (!reserved) {
+                System.err.println("❌ Could not reserve restored cart line: " + line.getProductName());
+            }
+        });
+    }
+
+    private void record(Product line) {
+        if (journal != null) {
+            journal.recordSet(line);
+        }
+    }
+
+    private static CartJournal openJournal() {
+        try {
+            return new CartJournal();
+        } catch (IOException e) {
+            System.err.println("❌ Cart journal unavailable; the cart will not survive a crash: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds (sign 1) or subtracts (sign -1) a line's priced amounts from the running totals.
+     */
+    private void addToTotals(Product line, int sign) {
+        PricingEngine.LinePrice price = pricing.price(line);
+        grossCents += sign * price.gross();
+        discountCents += sign * price.discount();
+        taxCents += sign * price.tax();
+    }
 }
@@ -0,0 +1,293 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.dao.*;
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Singleton in-memory cache of the product catalog, keyed by product_id.
+ * <p>
+ * Views read products and category listings from here instead of querying
+ * the database on every scene switch. The DAOs write through to the cache
+ * after each successful insert, update, delete or sale, so cached data
+ * stays current without re-reading it.
+ * </p>
+ * <p>
+ * A listing is only ever read from the database on the calling thread when
+ * it has never been loaded, so that first read must be made off the FX thread
+ * (see {@link AsyncDataService}). Once a listing is older than
+ * {@code CATALOG_CACHE_TTL_MS}, it is reloaded in the background while the
+ * current copy is still served.
+ * </p>
+ * <p>
+ * Services that derive data from the catalog (search indexes, stock
+ * alerts) register a {@link Listener} to stay current as products change.
+ * </p>
+ * <p>
+ * Cached products are never changed in place once stored: a change stores a
+ * new instance, so a product handed to a view stays as it was read.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class CatalogCache {
+
+    /**
+     * Receives catalog changes. Callbacks run on whichever thread made the change.
+     */
+    public interface Listener {
+
+        /** A product was inserted, edited, reloaded or had its stock changed. */
+        void productChanged(Product product);
+
+        /** A product was deleted. */
+        void productRemoved(int productId);
+
+        /** The full product listing was reloaded from the database. */
+        void catalogReloaded(List<Product> products);
+    }
+
+    // Singleton instance (shared with DAO threads, so created eagerly)
+    private static final CatalogCache instance = new CatalogCache();
+
+    // Key used in loadedAt for the full Products listing
+    private static final String ALL_PRODUCTS = "*";
+
+    private final Map<Integer, Product> products = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Integer>> categoryMembers = new ConcurrentHashMap<>();
+    private final Map<String, Long> loadedAt = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final long ttlMs = DatabaseConfig.getLong("CATALOG_CACHE_TTL_MS", 300_000);
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private CatalogCache() {}
+
+    /**
+     * Gets the singleton instance of CatalogCache.
+     *
+     * @return shared instance of CatalogCache
+     */
+    public static CatalogCache getInstance() {
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // READ
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Returns every product in the catalog, ordered by product_id.
+     * Queries the database on this thread only when the catalog has never
+     * been loaded; call it off the FX thread.
+     *
+     * @return list of cached products
+     */
+    public List<Product> getAllProducts() {
+        ensureFresh(ALL_PRODUCTS, this::reloadAll);
+        return new ArrayList<>(products.values());
+    }
+
+    /**
+     * Returns the products belonging to a category table, ordered by product_id.
+     * Queries the category join on this thread only when that category has
+     * never been loaded; call it off the FX thread.
+     *
+     * @param category the category name (e.g. "Animals")
+     * @return list of cached products in that category, or empty if the
+     *         category has never been loaded and loading it failed
+     */
+    public Optional<List<Product>> getCategory(String category) {
+        String key = category.toLowerCase();
+        ensureFresh(key, () -> reloadCategory(key));
+        if (!loadedAt.containsKey(key) && !categoryMembers.containsKey(key)) {
+            return Optional.empty();
+        }
+
+        List<Product> result = new ArrayList<>();
+        for (Integer id : categoryMembers.getOrDefault(key, Set.of())) {
+            Product product = products.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Registers a listener for catalog changes.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // WRITE-THROUGH (called by the DAOs after a successful write)
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Stores or replaces a product after it was written to the Products table.
+     *
+     * @param product the product as written
+     */
+    public void put(Product product) {
+        if (product.getId() > 0) {
+            products.put(product.getId(), product);
+            listeners.forEach(l -> l.productChanged(product));
+        }
+    }
+
+    /**
+     * Stores a product and records it as a member of a category table.
+     *
+     * @param category the category name
+     * @param product  the product as written
+     */
+    public void putInCategory(String category, Product product) {
+        put(product);
+        if (product.getId() > 0) {
+            categoryMembers
+                    .computeIfAbsent(category.toLowerCase(), k -> new ConcurrentSkipListSet<>())
+                    .add(product.getId());
+        }
+    }
+
+    /**
+     * Applies a committed sale's stock change to the cached product, if present.
+     * The sale also bumped the row's version, so the cached version is bumped
+     * with it and later edits are not rejected as stale. The cached product is
+     * replaced by an updated copy rather than changed in place, since views on
+     * the FX thread may be showing the old instance.
+     *
+     * @param productId the product ID
+     * @param delta     the change in stock (negative for a sale)
+     */
+    public void adjustStock(int productId, int delta) {
+        Product changed = products.computeIfPresent(productId, (id, product) -> {
+            Product copy = new Product(product.getId(), product.getProductName(), product.getCategory(),
+                    Math.max(0, product.getStockQuantity() + delta), product.getSupplier(),
+                    product.getPrice(), product.getMinStockLevel());
+            copy.setVersion(product.getVersion() + 1);
+            return copy;
+        });
+        if (changed != null) {
+            listeners.forEach(l -> l.productChanged(changed));
+        }
+    }
+
+    /**
+     * Drops a deleted product from the cache and all category listings.
+     *
+     * @param productId the product ID
+     */
+    public void remove(int productId) {
+        products.remove(productId);
+        categoryMembers.values().forEach(ids -> ids.remove(productId));
+        listeners.forEach(l -> l.productRemoved(productId));
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Loading
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Loads a listing that has never been loaded, or starts a background
+     * refresh once it is older than the TTL. An expired listing is served
+     * as it is until the refresh replaces it.
+     */
+    private void ensureFresh(String key, Runnable loader) {
+        Long at = loadedAt.get(key);
+        if (at == null) {
+            loader.run();
+        } else if (System.currentTimeMillis() - at >= ttlMs && refreshing.add(key)) {
+            refresher.execute(() -> {
+                try {
+                    loader.run();
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Replaces the cached catalog with a fresh load. If the query fails the
+     * cached products are kept as they were and the listing keeps its old
+     * load time, so the next read tries again.
+     */
+    private void reloadAll() {
+        long start = System.currentTimeMillis();
+        Optional<List<Product>> loaded = ProductDAO.getAllProducts();
+        if (loaded.isEmpty()) {
+            System.err.println("❌ Catalog reload failed; keeping cached products.");
+            return;
+        }
+        List<Product> fresh = loaded.get();
+
+        Set<Integer> freshIds = ConcurrentHashMap.newKeySet();
+        for (Product product : fresh) {
+            products.put(product.getId(), product);
+            freshIds.add(product.getId());
+        }
+        products.keySet().retainAll(freshIds);
+
+        loadedAt.put(ALL_PRODUCTS, start);
+        listeners.forEach(l -> l.catalogReloaded(fresh));
+    }
+
+    /**
+     * Reloads one category listing. As with {@link #reloadAll()}, a failed
+     * query leaves the cached listing in place and expired.
+     */
+    private void reloadCategory(String key) {
+        Supplier<Optional<List<Product>>> query = switch (key) {
+            case "animals"    -> AnimalDAO::getAllAnimals;
+            case "enclosures" -> EnclosureDAO::getAllEnclosures;
+            case "feeders"    -> FeederDAO::getAllFeeders;
+            case "supplies"   -> SupplyDAO::getAllSupplies;
+            default           -> () -> Optional.of(List.of());
+        };
+
+        long start = System.currentTimeMillis();
+        Optional<List<Product>> loaded = query.get();
+        if (loaded.isEmpty()) {
+            System.err.println("❌ Reload of " + key + " failed; keeping cached listing.");
+            return;
+        }
+
+        Set<Integer> members = new ConcurrentSkipListSet<>();
+        for (Product product : loaded.get()) {
+            products.put(product.getId(), product);
+            members.add(product.getId());
+            listeners.forEach(l -> l.productChanged(product));
+        }
+
+        categoryMembers.put(key, members);
+        loadedAt.put(key, start);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.models.Product;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Loads a category listing in the background for the tabbed views.
+ * <p>
+ * Tabs load on first selection, one category at a time, from
+ * {@link CatalogCache} via {@link AsyncDataService}. The load time is logged
+ * per category.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class CategoryLoader {
+
+    /**
+     * The category tabs shown by the Categories and Admin Terminal views, in display order.
+     */
+    public static final List<String> CATEGORIES = List.of("Animals", "Enclosures", "Feeders", "Supplies");
+
+    /**
+     * Loads a category from the catalog cache in the background.
+     *
+     * @param category the category to load
+     * @param onLoaded receives the category's products on the FX thread
+     * @param onFailed runs on the FX thread if the category could not be loaded
+     */
+    public static void load(String category, Consumer<List<Product>> onLoaded, Runnable onFailed) {
+        AsyncDataService.fetch(() -> {
+            long start = System.nanoTime();
+            Optional<List<Product>> products = CatalogCache.getInstance().getCategory(category);
+            products.ifPresent(loaded -> System.out.printf("⏱️ %s loaded in %.1f ms (%d items)%n",
+                    category, (System.nanoTime() - start) / 1e6, loaded.size()));
+            return products;
+        }, products -> products.ifPresentOrElse(onLoaded, onFailed));
+    }
+}
@@ -0,0 +1,361 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant product lookup over product names and suppliers.
+ * <p>
+ * Every word of each product's name and supplier is stored in a BK-tree
+ * keyed by Levenshtein distance, so a misspelled query word ("dargon") only
+ * visits the few terms that could be within its edit tolerance. The index is
+ * built once from the catalog and kept current through
+ * {@link CatalogCache.Listener} events as products are added, edited or
+ * removed; nothing is recomputed per keystroke.
+ * </p>
+ * <p>
+ * Results are ranked by how many query words matched, then by total edit
+ * distance, then by name. Each search stops after
+ * {@code FUZZY_SEARCH_BUDGET_MS} (default 25 ms) and ranks what it found so far.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class FuzzyProductMatcher implements CatalogCache.Listener {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final long budgetNanos = DatabaseConfig.getLong("FUZZY_SEARCH_BUDGET_MS", 25) * 1_000_000L;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private BkNode root;
+    private final Map<String, Set<Integer>> termIds = new HashMap<>();
+    private final Map<Integer, Set<String>> idTerms = new HashMap<>();
+    private final Map<Integer, Product> products = new HashMap<>();
+
+    // Set once the index has been built from a full catalog
+    private volatile boolean built;
+
+    /**
+     * Lazily created instance, built from the catalog on first use.
+     */
+    private static final class Holder {
+        private static final FuzzyProductMatcher INSTANCE = new FuzzyProductMatcher();
+    }
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private FuzzyProductMatcher() {
+        // Subscribe first so no change made during the initial build is missed
+        CatalogCache cache = CatalogCache.getInstance();
+        cache.addListener(this);
+
+        // Reading a cold cache loads it and fires catalogReloaded, which builds the index;
+        // only a warm cache needs an explicit build here
+        long start = System.currentTimeMillis();
+        List<Product> all = cache.getAllProducts();
+        if (!built) {
+            rebuild(all);
+        }
+        System.out.println("⏱️ Fuzzy index built over " + products.size() + " products in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Gets the singleton instance of FuzzyProductMatcher, building the index
+     * on first call.
+     *
+     * @return shared instance of FuzzyProductMatcher
+     */
+    public static FuzzyProductMatcher getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Search
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Finds the products whose name or supplier words are closest to the query.
+     *
+     * @param query the text typed by the user
+     * @param limit maximum number of results
+     * @return up to {@code limit} products, best match first
+     */
+    public List<Product> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        long deadline = System.nanoTime() + budgetNanos;
+        Map<Integer, Score> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (String word : words) {
+                if (System.nanoTime() > deadline) {
+                    break;
+                }
+
+                // Closest distance per product for this query word
+                Map<Integer, Integer> best = new HashMap<>();
+                List<Hit> hits = new ArrayList<>();
+                if (root != null) {
+                    root.collect(word, toleranceFor(word), deadline, hits);
+                }
+                for (Hit hit : hits) {
+                    for (Integer id : termIds.getOrDefault(hit.term, Set.of())) {
+                        best.merge(id, hit.distance, Math::min);
+                    }
+                }
+                best.forEach((id, distance) ->
+                        scores.computeIfAbsent(id, k -> new Score(products.get(k))).add(distance));
+            }
+
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // CatalogCache.Listener
+    // ─────────────────────────────────────────────────────────────
+
+    @Override
+    public void productChanged(Product product) {
+        lock.writeLock().lock();
+        try {
+            unindex(product.getId());
+            index(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void productRemoved(int productId) {
+        lock.writeLock().lock();
+        try {
+            unindex(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void catalogReloaded(List<Product> all) {
+        rebuild(all);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Indexing
+    // ─────────────────────────────────────────────────────────────
+
+    private void rebuild(List<Product> all) {
+        lock.writeLock().lock();
+        try {
+            root = null;
+            termIds.clear();
+            idTerms.clear();
+            products.clear();
+            for (Product product : all) {
+                index(product);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Product product) {
+        Set<String> terms = new HashSet<>(tokenize(product.getProductName()));
+        terms.addAll(tokenize(product.getSupplier()));
+
+        products.put(product.getId(), product);
+        idTerms.put(product.getId(), terms);
+        for (String term : terms) {
+            Set<Integer> ids = termIds.get(term);
+            if (ids == null) {
+                ids = new HashSet<>();
+                termIds.put(term, ids);
+                insertTerm(term);
+            }
+            ids.add(product.getId());
+        }
+    }
+
+    /**
+     * Removes a product's postings. Terms stay in the BK-tree (it does not
+     * support deletion); terms left with no products simply match nothing.
+     * Orphaned terms are dropped on the next full reload.
+     */
+    private void unindex(int productId) {
+        products.remove(productId);
+        Set<String> terms = idTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<Integer> ids = termIds.get(term);
+            if (ids != null) {
+                ids.remove(productId);
+            }
+        }
+    }
+
+    private void insertTerm(String term) {
+        if (root == null) {
+            root = new BkNode(term);
+            return;
+        }
+        BkNode node = root;
+        while (true) {
+            int distance = levenshtein(term, node.term);
+            if (distance == 0) {
+                return;
+            }
+            BkNode child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new BkNode(term));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_TERM_LENGTH) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Edits allowed for a query word: one for short words, up to three for long ones.
+     */
+    private static int toleranceFor(String word) {
+        if (word.length() <= 4) {
+            return 1;
+        }
+        return word.length() <= 8 ? 2 : 3;
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static List<Product> topK(Map<Integer, Score> scores, int limit) {
+        Comparator<Score> better = Comparator
+                .comparingInt((Score s) -> -s.matchedWords)
+                .thenComparingInt(s -> s.totalDistance)
+                .thenComparing(s -> s.product.getProductName(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+        // Min-heap on "better": the head is the weakest of the current top K
+        PriorityQueue<Score> heap = new PriorityQueue<>(limit + 1, better.reversed());
+        for (Score score : scores.values()) {
+            if (score.product == null) {
+                continue;
+            }
+            heap.offer(score);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<Score> ranked = new ArrayList<>(heap);
+        ranked.sort(better);
+        List<Product> result = new ArrayList<>(ranked.size());
+        for (Score score : ranked) {
+            result.add(score.product);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * BK-tree node: children are keyed by their distance to this node's term.
+     */
+    private static final class BkNode {
+        final String term;
+        final Map<Integer, BkNode> children = new HashMap<>();
+
+        BkNode(String term) {
+            this.term = term;
+        }
+
+        void collect(String word, int tolerance, long deadline, List<Hit> hits) {
+            if (System.nanoTime() > deadline) {
+                return;
+            }
+            int distance = levenshtein(word, term);
+            if (distance <= tolerance) {
+                hits.add(new Hit(term, distance));
+            }
+            // Triangle inequality: only subtrees within [d - tol, d + tol] can match
+            for (int d = Math.max(1, distance - tolerance); d <= distance + tolerance; d++) {
+                BkNode child = children.get(d);
+                if (child != null) {
+                    child.collect(word, tolerance, deadline, hits);
+                }
+            }
+        }
+    }
+
+    private record Hit(String term, int distance) {}
+
+    private static final class Score {
+        final Product product;
+        int matchedWords;
+        int totalDistance;
+
+        Score(Product product) {
+            this.product = product;
+        }
+
+        void add(int distance) {
+            matchedWords++;
+            totalDistance += distance;
+        }
+    }
+}
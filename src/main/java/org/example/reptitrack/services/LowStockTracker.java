@@ -0,0 +1,195 @@
+package org.example.reptitrack.services;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.example.reptitrack.models.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the set of low-stock products (quantity at or below minimum stock)
+ * current as stock changes.
+ * <p>
+ * Products are held in a sorted index, most under their minimum first. The
+ * index listens to {@link CatalogCache}, so each sale, restock or admin edit
+ * moves one product in or out in O(log n) instead of rescanning the catalog.
+ * </p>
+ * <p>
+ * The dashboard label and low-stock window observe {@link #lowStockCountProperty()}
+ * and {@link #getLowStockItems()}. These are updated on the FX thread, and
+ * a burst of changes (such as one sale of many lines) is published once.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class LowStockTracker implements CatalogCache.Listener {
+
+    /**
+     * A low-stock product and how far under its minimum it was when indexed.
+     * The deficit is captured so an entry's place in the sorted index is fixed.
+     */
+    private record Entry(Product product, int deficit) {}
+
+    // Most under minimum first; product_id breaks ties
+    private static final Comparator<Entry> MOST_URGENT_FIRST = Comparator
+            .comparingInt((Entry e) -> -e.deficit())
+            .thenComparingInt(e -> e.product().getId());
+
+    // Guarded by this
+    private final TreeSet<Entry> index = new TreeSet<>(MOST_URGENT_FIRST);
+    private final Map<Integer, Entry> byId = new HashMap<>();
+
+    // Only touched on the FX thread
+    private final ReadOnlyIntegerWrapper count = new ReadOnlyIntegerWrapper(0);
+    private final ObservableList<Product> items = FXCollections.observableArrayList();
+    private final ObservableList<Product> readOnlyItems = FXCollections.unmodifiableObservableList(items);
+
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+
+    // Set once the index has been built from a full catalog
+    private volatile boolean built;
+
+    /**
+     * Lazily created instance, built from the catalog on first use.
+     */
+    private static final class Holder {
+        private static final LowStockTracker INSTANCE = new LowStockTracker();
+    }
+
+    /**
+     * Private constructor to enforce singleton pattern. The initial build runs
+     * in the background, since the catalog may not be loaded yet; the count
+     * and list are published once it finishes.
+     */
+    private LowStockTracker() {
+        // Subscribe first so no change made during the initial build is missed
+        CatalogCache cache = CatalogCache.getInstance();
+        cache.addListener(this);
+
+        AsyncDataService.supply(() -> {
+            // Reading a cold cache loads it and fires catalogReloaded, which builds the index;
+            // only a warm cache needs an explicit build here
+            List<Product> all = cache.getAllProducts();
+            if (!built) {
+                catalogReloaded(all);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Gets the singleton instance of LowStockTracker, starting the index build on first call.
+     *
+     * @return shared instance of LowStockTracker
+     */
+    public static LowStockTracker getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Observing (FX thread)
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Number of products at or below their minimum stock level.
+     *
+     * @return read-only count, updated on the FX thread
+     */
+    public ReadOnlyIntegerProperty lowStockCountProperty() {
+        return count.getReadOnlyProperty();
+    }
+
+    /**
+     * Products at or below their minimum stock level, most under minimum first.
+     *
+     * @return read-only list, updated on the FX thread
+     */
+    public ObservableList<Product> getLowStockItems() {
+        return readOnlyItems;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // CatalogCache.Listener
+    // ─────────────────────────────────────────────────────────────
+
+    @Override
+    public void productChanged(Product product) {
+        synchronized (this) {
+            unindex(product.getId());
+            index(product);
+        }
+        schedulePublish();
+    }
+
+    @Override
+    public void productRemoved(int productId) {
+        synchronized (this) {
+            unindex(productId);
+        }
+        schedulePublish();
+    }
+
+    @Override
+    public void catalogReloaded(List<Product> products) {
+        synchronized (this) {
+            index.clear();
+            byId.clear();
+            for (Product product : products) {
+                index(product);
+            }
+            built = true;
+        }
+        schedulePublish();
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    private void index(Product product) {
+        int deficit = product.getMinStockLevel() - product.getStockQuantity();
+        if (deficit >= 0) {
+            Entry entry = new Entry(product, deficit);
+            index.add(entry);
+            byId.put(product.getId(), entry);
+        }
+    }
+
+    private void unindex(int productId) {
+        Entry old = byId.remove(productId);
+        if (old != null) {
+            index.remove(old);
+        }
+    }
+
+    /**
+     * Publishes the current index to the FX thread once per burst of changes.
+     */
+    private void schedulePublish() {
+        if (!publishPending.compareAndSet(false, true)) {
+            return;
+        }
+        Platform.runLater(() -> {
+            publishPending.set(false);
+            List<Product> snapshot;
+            synchronized (this) {
+                snapshot = new ArrayList<>(index.size());
+                for (Entry entry : index) {
+                    snapshot.add(entry.product());
+                }
+            }
+            items.setAll(snapshot);
+            count.set(snapshot.size());
+        });
+    }
+}
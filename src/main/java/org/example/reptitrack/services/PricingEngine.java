@@ -0,0 +1,138 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.utils.DatabaseConfig;
+import org.example.reptitrack.utils.Money;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prices cart lines using per-category tax, discount and promotion rules.
+ * <p>
+ * Rules are read from the .env file once, when the engine is first used, and
+ * compiled into one {@link Rule} per category. Pricing a line is then a single
+ * map lookup plus integer arithmetic in cents; no rule is parsed or evaluated
+ * per line.
+ * </p>
+ * <p>
+ * All rates are in basis points (1300 = 13%). Category keys use the upper-case
+ * category name, e.g. {@code ANIMALS}:
+ * </p>
+ * <ul>
+ *     <li>{@code TAX_RATE_BP} – store tax rate (default 1300)</li>
+ *     <li>{@code TAX_RATE_BP_<CATEGORY>} – category tax rate, e.g. 0 for an exemption</li>
+ *     <li>{@code DISCOUNT_BP_<CATEGORY>} – standing discount on the category</li>
+ *     <li>{@code PROMO_MIN_QTY_<CATEGORY>} and {@code PROMO_BP_<CATEGORY>} – extra
+ *     discount on a line of at least that many units</li>
+ * </ul>
+ * Tax is charged on the line after discounts and rounded per line.
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class PricingEngine {
+
+    /**
+     * Compiled rules for one category.
+     *
+     * @param taxBp       tax rate
+     * @param discountBp  standing discount rate
+     * @param promoMinQty minimum line quantity for the promotion (0 = no promotion)
+     * @param promoBp     promotion discount rate
+     */
+    public record Rule(int taxBp, int discountBp, int promoMinQty, int promoBp) {}
+
+    /**
+     * Priced amounts for one cart line, in cents.
+     *
+     * @param gross    unit price × quantity
+     * @param discount total discount taken off the line
+     * @param tax      tax on the discounted line
+     */
+    public record LinePrice(long gross, long discount, long tax) {
+
+        /** @return the line after discounts, before tax */
+        public long net() {
+            return gross - discount;
+        }
+
+        /** @return the line including tax */
+        public long total() {
+            return gross - discount + tax;
+        }
+    }
+
+    // Singleton instance (rules are compiled once at startup)
+    private static final PricingEngine instance = new PricingEngine();
+
+    private final Rule defaultRule;
+    private final Map<String, Rule> rules = new HashMap<>();
+
+    /**
+     * Private constructor to enforce singleton pattern. Compiles the rule table.
+     */
+    private PricingEngine() {
+        int storeTaxBp = DatabaseConfig.getInt("TAX_RATE_BP", 1300);
+        defaultRule = new Rule(storeTaxBp, 0, 0, 0);
+
+        for (String category : CategoryLoader.CATEGORIES) {
+            String key = category.toUpperCase(Locale.ROOT);
+            rules.put(category.toLowerCase(Locale.ROOT), new Rule(
+                    DatabaseConfig.getInt("TAX_RATE_BP_" + key, storeTaxBp),
+                    DatabaseConfig.getInt("DISCOUNT_BP_" + key, 0),
+                    DatabaseConfig.getInt("PROMO_MIN_QTY_" + key, 0),
+                    DatabaseConfig.getInt("PROMO_BP_" + key, 0)
+            ));
+        }
+    }
+
+    /**
+     * Gets the singleton instance of PricingEngine.
+     *
+     * @return shared instance of PricingEngine
+     */
+    public static PricingEngine getInstance() {
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Pricing
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Prices one cart line.
+     *
+     * @param line the cart line (its stock quantity is the quantity sold)
+     * @return gross, discount and tax for the line, in cents
+     */
+    public LinePrice price(Product line) {
+        Rule rule = ruleFor(line.getCategory());
+        int quantity = line.getStockQuantity();
+        long gross = Money.times(Money.ofDollars(line.getPrice()), quantity);
+
+        int discountBp = rule.discountBp();
+        if (rule.promoMinQty() > 0 && quantity >= rule.promoMinQty()) {
+            discountBp += rule.promoBp();
+        }
+        long discount = Math.min(gross, Money.percentOf(gross, discountBp));
+        long tax = Money.percentOf(gross - discount, rule.taxBp());
+
+        return new LinePrice(gross, discount, tax);
+    }
+
+    /**
+     * Returns the compiled rule for a category, or the store default for
+     * categories without their own rules.
+     *
+     * @param category the category name (case-insensitive)
+     * @return the rule that applies
+     */
+    public Rule ruleFor(String category) {
+        if (category == null) {
+            return defaultRule;
+        }
+        return rules.getOrDefault(category.toLowerCase(Locale.ROOT), defaultRule);
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.models.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory substring index over product names for the dashboard search box.
+ * <p>
+ * Names are lowercased once when the index is built. Every 1-, 2- and 3-character
+ * gram of each name is mapped to the sorted list of products containing it.
+ * </p>
+ * <ul>
+ *     <li>Queries of up to three characters are answered by a single lookup.</li>
+ *     <li>Longer queries intersect the postings of their trigrams, starting with the
+ *     rarest, and check only the surviving candidates.</li>
+ *     <li>A query that extends the previous one (the user typed another character)
+ *     filters the previous result instead of going back to the index.</li>
+ * </ul>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class ProductSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final Product[] products;
+    private final String[] lowerNames;
+    private final Map<String, int[]> postings;
+
+    // Last query and its matches, used to narrow refinements
+    private String lastQuery;
+    private int[] lastMatches;
+
+    /**
+     * Builds the index over a snapshot of products.
+     *
+     * @param source the products to index, in display order
+     */
+    public ProductSearchIndex(List<Product> source) {
+        products = source.toArray(new Product[0]);
+        lowerNames = new String[products.length];
+
+        Map<String, IntList> building = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < products.length; i++) {
+            String name = products[i].getProductName();
+            lowerNames[i] = name == null ? "" : name.toLowerCase(Locale.ROOT);
+
+            seen.clear();
+            String lower = lowerNames[i];
+            for (int start = 0; start < lower.length(); start++) {
+                for (int len = 1; len <= MAX_GRAM && start + len <= lower.length(); len++) {
+                    String gram = lower.substring(start, start + len);
+                    if (seen.add(gram)) {
+                        building.computeIfAbsent(gram, g -> new IntList()).add(i);
+                    }
+                }
+            }
+        }
+
+        postings = new HashMap<>(building.size() * 2);
+        building.forEach((gram, ids) -> postings.put(gram, ids.toArray()));
+    }
+
+    /**
+     * Finds products whose name contains the query, ignoring case.
+     *
+     * @param query the text typed by the user
+     * @return matching products in display order; all products for a blank query
+     */
+    public synchronized List<Product> search(String query) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            lastQuery = null;
+            lastMatches = null;
+            return Arrays.asList(products);
+        }
+
+        int[] matches;
+        if (lastQuery != null && q.contains(lastQuery)) {
+            matches = filter(lastMatches, q);
+        } else if (q.length() <= MAX_GRAM) {
+            matches = postings.getOrDefault(q, NO_MATCHES);
+        } else {
+            matches = filter(intersectTrigrams(q), q);
+        }
+
+        lastQuery = q;
+        lastMatches = matches;
+
+        List<Product> result = new ArrayList<>(matches.length);
+        for (int id : matches) {
+            result.add(products[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return indexed product count
+     */
+    public int size() {
+        return products.length;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Intersects the postings of every trigram in the query, rarest first.
+     */
+    private int[] intersectTrigrams(String q) {
+        List<int[]> lists = new ArrayList<>();
+        for (int i = 0; i + MAX_GRAM <= q.length(); i++) {
+            int[] ids = postings.get(q.substring(i, i + MAX_GRAM));
+            if (ids == null) {
+                return NO_MATCHES;
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Keeps only the candidates whose lowercased name contains the query.
+     */
+    private int[] filter(int[] candidates, String q) {
+        int[] out = new int[candidates.length];
+        int n = 0;
+        for (int id : candidates) {
+            if (lowerNames[id].contains(q)) {
+                out[n++] = id;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Minimal growable int array used while building postings.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.dao.SaleDAO;
+import org.example.reptitrack.models.Sale;
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind recorder for completed sales.
+ * <p>
+ * The till hands each completed sale to {@link #record(Sale)}, which only
+ * places it on a bounded in-memory queue. A background thread takes sales
+ * off the queue and writes them with {@link SaleDAO#insertSales(List)} in
+ * batches of up to {@code SALES_LEDGER_BATCH_SIZE}, so recording a sale adds
+ * no database round trip to checkout.
+ * </p>
+ * <ul>
+ *     <li><b>Back-pressure:</b> when the queue ({@code SALES_LEDGER_QUEUE_CAPACITY})
+ *     is full, {@code record} waits at most {@code SALES_LEDGER_OFFER_TIMEOUT_MS}
+ *     for room, then writes the sale to the spill file instead.</li>
+ *     <li><b>Spill:</b> if a batch cannot be written, it is appended to
+ *     {@code SALES_SPILL_PATH} and synced to disk. The spill is re-sent every
+ *     {@code SALES_LEDGER_RETRY_MS} and on the next startup, then deleted.</li>
+ * </ul>
+ * Re-sending is safe because each sale's ID is generated at the till and the
+ * ledger ignores IDs it already holds.
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class SalesLedger {
+
+    // Singleton instance
+    private static SalesLedger instance;
+
+    private final int batchSize = DatabaseConfig.getInt("SALES_LEDGER_BATCH_SIZE", 50);
+    private final long offerTimeoutMs = DatabaseConfig.getLong("SALES_LEDGER_OFFER_TIMEOUT_MS", 50);
+    private final long retryMs = DatabaseConfig.getLong("SALES_LEDGER_RETRY_MS", 30_000);
+    private final Path spillPath = Path.of(DatabaseConfig.get("SALES_SPILL_PATH", "sales-spill.log"));
+    private final Path sendingPath = spillPath.resolveSibling(spillPath.getFileName() + ".sending");
+
+    private final BlockingQueue<Sale> queue =
+            new ArrayBlockingQueue<>(DatabaseConfig.getInt("SALES_LEDGER_QUEUE_CAPACITY", 1000));
+
+    // Serializes access to the spill files between the till and the writer thread; never held across database calls
+    private final Object spillLock = new Object();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+    private long nextRetryAt;
+
+    /**
+     * Private constructor to enforce singleton pattern. Starts the writer thread.
+     */
+    private SalesLedger() {
+        writer = new Thread(this::writeLoop, "sales-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Gets the singleton instance of SalesLedger.
+     *
+     * @return shared instance of SalesLedger
+     */
+    public static synchronized SalesLedger getInstance() {
+        if (instance == null) {
+            instance = new SalesLedger();
+        }
+        return instance;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Recording
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Queues a completed sale for writing. Returns at once unless the queue is
+     * full, in which case it waits a bounded time and then spills the sale to disk.
+     *
+     * @param sale the completed sale
+     */
+    public void record(Sale sale) {
+        try {
+            if (running && queue.offer(sale, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.err.println("❌ Sales ledger queue is full; spilling sale " + sale.saleId() + " to disk.");
+        spill(List.of(sale));
+    }
+
+    /**
+     * Stops the writer, writing out whatever is still queued (or spilling it
+     * if the database is unreachable). Called when the application exits.
+     */
+    public void close() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything the writer did not get to is kept for the next run
+        List<Sale> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        spill(remaining);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Writer Thread
+    // ─────────────────────────────────────────────────────────────
+
+    private void writeLoop() {
+        // Send anything left over from a previous run first
+        resendSpill();
+
+        List<Sale> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Sale first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    if (!SaleDAO.insertSales(batch)) {
+                        spill(batch);
+                    }
+                    batch.clear();
+                }
+                if (System.currentTimeMillis() >= nextRetryAt) {
+                    resendSpill();
+                }
+            } catch (InterruptedException e) {
+                // close() was called; loop once more to drain the queue
+            }
+        }
+    }
+
+    /**
+     * Re-sends spilled sales and deletes them once all are written.
+     * <p>
+     * The spill file is renamed aside under the lock and re-sent outside it,
+     * so a till spilling a sale meanwhile never waits on the database. If the
+     * re-send fails, the renamed file is put back ahead of anything spilled since.
+     * </p>
+     */
+    private void resendSpill() {
+        nextRetryAt = System.currentTimeMillis() + retryMs;
+
+        synchronized (spillLock) {
+            try {
+                if (Files.exists(sendingPath)) {
+                    restoreSending(); // Left by a run that stopped part way through a re-send
+                }
+                if (!Files.exists(spillPath)) {
+                    return;
+                }
+                Files.move(spillPath, sendingPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("❌ Failed to prepare sales spill file for re-sending: " + e.getMessage());
+                return;
+            }
+        }
+
+        List<Sale> spilled = readSpill(sendingPath);
+        for (int i = 0; i < spilled.size(); i += batchSize) {
+            if (!SaleDAO.insertSales(spilled.subList(i, Math.min(i + batchSize, spilled.size())))) {
+                // Still offline; keep the sales and try again later
+                synchronized (spillLock) {
+                    try {
+                        restoreSending();
+                    } catch (IOException e) {
+                        System.err.println("❌ Failed to restore sales spill file: " + e.getMessage());
+                    }
+                }
+                return;
+            }
+        }
+        try {
+            Files.deleteIfExists(sendingPath);
+            if (!spilled.isEmpty()) {
+                System.out.println("✅ Re-sent " + spilled.size() + " spilled sale(s) to the ledger.");
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Failed to delete sales spill file: " + e.getMessage());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Spill File
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Appends sales to the spill file, one Base64 record per line, and syncs it.
+     */
+    private void spill(List<Sale> sales) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        synchronized (spillLock) {
+            try {
+                StringBuilder lines = new StringBuilder();
+                for (Sale sale : sales) {
+                    lines.append(Base64.getEncoder().encodeToString(encode(sale))).append('\n');
+                }
+                append(spillPath, lines.toString().getBytes(StandardCharsets.US_ASCII));
+                System.err.println("❌ " + sales.size() + " sale(s) saved to " + spillPath + " until the ledger can be written.");
+            } catch (IOException e) {
+                System.err.println("❌ Failed to spill " + sales.size() + " sale(s): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Moves the file being re-sent back to the spill path, with anything
+     * spilled since appended after it. Caller holds {@code spillLock}.
+     */
+    private void restoreSending() throws IOException {
+        if (Files.exists(spillPath)) {
+            append(sendingPath, Files.readAllBytes(spillPath));
+        }
+        Files.move(sendingPath, spillPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Appends whole lines to a file and syncs it. If the file ends in a line
+     * torn by a crash, a newline is written first so the torn line stays
+     * separate and only it is skipped on replay.
+     */
+    private static void append(Path path, byte[] lines) throws IOException {
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = out.size();
+            ByteBuffer last = ByteBuffer.allocate(1);
+            boolean torn = size > 0 && out.read(last, size - 1) == 1 && last.get(0) != '\n';
+
+            out.position(size);
+            if (torn) {
+                out.write(ByteBuffer.wrap(new byte[] {'\n'}));
+            }
+            out.write(ByteBuffer.wrap(lines));
+            out.force(false);
+        }
+    }
+
+    private static List<Sale> readSpill(Path path) {
+        List<Sale> sales = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.US_ASCII)) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    sales.add(decode(Base64.getDecoder().decode(line)));
+                } catch (IllegalArgumentException | IOException e) {
+                    // A line torn by a crash mid-write; every complete line is still read
+                    System.err.println("❌ Skipping unreadable sales spill record.");
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Failed to read sales spill file: " + e.getMessage());
+        }
+        return sales;
+    }
+
+    private static byte[] encode(Sale sale) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(sale.saleId());
+        out.writeLong(sale.soldAtMillis());
+        out.writeUTF(sale.paymentMethod());
+        out.writeLong(sale.subtotalCents());
+        out.writeLong(sale.discountCents());
+        out.writeLong(sale.taxCents());
+        out.writeLong(sale.totalCents());
+        out.writeInt(sale.lines().size());
+        for (Sale.Line line : sale.lines()) {
+            out.writeInt(line.productId());
+            out.writeUTF(line.productName());
+            out.writeUTF(line.category());
+            out.writeUTF(line.supplier());
+            out.writeInt(line.quantity());
+            out.writeLong(line.unitPriceCents());
+            out.writeLong(line.discountCents());
+            out.writeLong(line.taxCents());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Sale decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        String saleId = in.readUTF();
+        long soldAt = in.readLong();
+        String method = in.readUTF();
+        long subtotal = in.readLong();
+        long discount = in.readLong();
+        long tax = in.readLong();
+        long total = in.readLong();
+
+        int count = in.readInt();
+        List<Sale.Line> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(new Sale.Line(in.readInt(), in.readUTF(), in.readUTF(), in.readUTF(), in.readInt(),
+                    in.readLong(), in.readLong(), in.readLong()));
+        }
+        return new Sale(saleId, soldAt, method, subtotal, discount, tax, total, lines);
+    }
+}
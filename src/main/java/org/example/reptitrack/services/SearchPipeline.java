@@ -0,0 +1,100 @@
+package org.example.reptitrack.services;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Debounced, off-thread search pipeline for a search box.
+ * <p>
+ * Keystrokes restart a short debounce timer. Once typing pauses, matching
+ * runs in the background via {@link AsyncDataService}, and any query still
+ * running is cancelled. Only the result of the newest query is published,
+ * back on the FX thread, so input stays responsive however large the
+ * catalog is.
+ * </p>
+ *
+ * Must be created and driven from the JavaFX Application Thread.
+ *
+ * @param <T> the result element type
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class SearchPipeline<T> {
+
+    private final PauseTransition debounce;
+    private final Function<String, List<T>> matcher;
+    private final Consumer<List<T>> publisher;
+
+    // Only touched on the FX thread
+    private CompletableFuture<List<T>> inFlight;
+    private long generation;
+
+    /**
+     * Creates a search pipeline.
+     *
+     * @param delay     how long typing must pause before a query runs
+     * @param matcher   computes the results for a query (runs off the FX thread)
+     * @param publisher receives the newest results on the FX thread
+     */
+    public SearchPipeline(Duration delay, Function<String, List<T>> matcher, Consumer<List<T>> publisher) {
+        this.debounce = new PauseTransition(delay);
+        this.matcher = matcher;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Schedules a query once typing pauses, replacing any query still waiting.
+     *
+     * @param query the current search text
+     */
+    public void submit(String query) {
+        debounce.setOnFinished(e -> run(query));
+        debounce.playFromStart();
+    }
+
+    /**
+     * Runs a query immediately, skipping the debounce (e.g. the Search button).
+     *
+     * @param query the current search text
+     */
+    public void submitNow(String query) {
+        debounce.stop();
+        run(query);
+    }
+
+    /**
+     * Stops any waiting or running query without publishing it.
+     */
+    public void cancel() {
+        debounce.stop();
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+
+    private void run(String query) {
+        cancel();
+        long current = generation;
+
+        inFlight = AsyncDataService.supply(() -> matcher.apply(query));
+        inFlight.whenComplete((results, error) -> Platform.runLater(() -> {
+            if (current != generation) {
+                return; // A newer query has been submitted since
+            }
+            inFlight = null;
+            if (error != null) {
+                System.err.println("❌ Search failed: " + error.getMessage());
+            } else {
+                publisher.accept(results);
+            }
+        }));
+    }
+}
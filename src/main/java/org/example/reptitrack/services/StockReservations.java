@@ -0,0 +1,201 @@
+package org.example.reptitrack.services;
+
+import org.example.reptitrack.dao.ReservationDAO;
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds stock for this terminal's cart so another terminal cannot sell it.
+ * <p>
+ * When an item enters the cart, its units are reserved in the database
+ * (see {@link ReservationDAO}) and leave the stock other terminals can sell.
+ * The on-hand count in Products does not change until the sale completes.
+ * They are released when the item leaves the cart, and are used up by
+ * {@code CheckoutDAO.commitSale} when the sale completes.
+ * </p>
+ * <p>
+ * All database work for this terminal runs in order on one background
+ * thread, so a release can never overtake the reservation it undoes. The
+ * same thread:
+ * </p>
+ * <ul>
+ *     <li>refreshes this terminal's reservations every third of
+ *     {@code RESERVATION_TTL_SECONDS} (default 300), so they only expire
+ *     if the terminal stops. The refresh keeps only what this terminal
+ *     still holds by its own count, so units left behind by a release that
+ *     failed, or by a sale, are dropped instead of being kept alive. Units
+ *     whose reservation expired meanwhile (say, during a database outage)
+ *     are reserved again only if they are still available;</li>
+ *     <li>deletes expired reservations from any terminal every
+ *     {@code RESERVATION_SWEEP_MS} (default 60 000);</li>
+ *     <li>on startup, releases whatever this terminal held when it last stopped.
+ *     The terminal ID is {@code TERMINAL_ID} from .env if set; otherwise an ID
+ *     is generated once and kept in {@code terminal.id} next to the cart
+ *     journal, so it is the same on every run.</li>
+ * </ul>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public class StockReservations {
+
+    // Singleton instance
+    private static StockReservations instance;
+
+    private final String terminalId = loadTerminalId();
+    private final int ttlSeconds = DatabaseConfig.getInt("RESERVATION_TTL_SECONDS", 300);
+
+    // Units this terminal holds per product_id; only touched on the worker thread
+    private final Map<Integer, Integer> held = new HashMap<>();
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "stock-reservations");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Private constructor to enforce singleton pattern. Releases leftovers
+     * from the previous run and starts the refresh and sweep tasks.
+     */
+    private StockReservations() {
+        worker.execute(() -> logReleased(ReservationDAO.releaseAll(terminalId)));
+
+        long refreshMs = ttlSeconds * 1000L / 3;
+        worker.scheduleWithFixedDelay(() -> logReleased(ReservationDAO.refresh(terminalId, held, ttlSeconds)),
+                refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+
+        long sweepMs = DatabaseConfig.getLong("RESERVATION_SWEEP_MS", 60_000);
+        worker.scheduleWithFixedDelay(() -> logReleased(ReservationDAO.releaseExpired()),
+                sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the singleton instance of StockReservations.
+     *
+     * @return shared instance of StockReservations
+     */
+    public static synchronized StockReservations getInstance() {
+        if (instance == null) {
+            instance = new StockReservations();
+        }
+        return instance;
+    }
+
+    /**
+     * The ID this terminal's reservations are held under.
+     *
+     * @return terminal ID
+     */
+    public String getTerminalId() {
+        return terminalId;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Reserving
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Reserves units of a product in the background.
+     *
+     * @param productId the product ID
+     * @param quantity  units to reserve
+     * @return completes with true if reserved, or false if stock was short or the database unreachable
+     */
+    public CompletableFuture<Boolean> reserve(int productId, int quantity) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean reserved = ReservationDAO.reserve(terminalId, productId, quantity, ttlSeconds);
+            if (reserved) {
+                held.merge(productId, quantity, Integer::sum);
+            }
+            return reserved;
+        }, worker);
+    }
+
+    /**
+     * Releases reserved units of a product in the background.
+     *
+     * @param productId the product ID
+     * @param quantity  units to release
+     */
+    public void release(int productId, int quantity) {
+        worker.execute(() -> {
+            forget(productId, quantity);
+            ReservationDAO.release(terminalId, productId, quantity);
+        });
+    }
+
+    /**
+     * Records that reserved units were used up by a committed sale, so the
+     * next refresh no longer counts them as held.
+     *
+     * @param productId the product ID
+     * @param quantity  units sold
+     */
+    public void sold(int productId, int quantity) {
+        worker.execute(() -> forget(productId, quantity));
+    }
+
+    /**
+     * Stops the background thread. Reservations stay in place and are
+     * released on the next start or when they expire.
+     */
+    public void close() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void forget(int productId, int quantity) {
+        held.computeIfPresent(productId, (id, units) -> units > quantity ? units - quantity : null);
+    }
+
+    /**
+     * Returns the configured TERMINAL_ID, or the ID saved beside the cart
+     * journal, creating and saving one on first run.
+     */
+    private static String loadTerminalId() {
+        String configured = DatabaseConfig.get("TERMINAL_ID");
+        if (configured != null && !configured.isBlank()) {
+            return configured.trim();
+        }
+
+        Path path = Path.of(DatabaseConfig.get("CART_JOURNAL_PATH", "cart.journal")).resolveSibling("terminal.id");
+        try {
+            if (Files.exists(path)) {
+                String saved = Files.readString(path).trim();
+                if (!saved.isEmpty()) {
+                    return saved;
+                }
+            }
+            String generated = UUID.randomUUID().toString();
+            Files.writeString(path, generated + "\n");
+            System.out.println("✅ Generated terminal ID " + generated + " in " + path);
+            return generated;
+
+        } catch (IOException e) {
+            // Still usable, but reservations from this run will be left to expire after a restart
+            System.err.println("❌ Could not read or save terminal ID: " + e.getMessage());
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private static void logReleased(Map<Integer, Integer> released) {
+        if (!released.isEmpty()) {
+            System.out.println("✅ Released " + released.size() + " reserved product(s).");
+        }
+    }
+}
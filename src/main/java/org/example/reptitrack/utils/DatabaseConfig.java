@@ -42,4 +42,59 @@ public class DatabaseConfig {
     public static String get(String key) {
         return properties.getProperty(key);
     }
+
+    /**
+     * Retrieves a value from the loaded .env configuration, falling back to a default.
+     *
+     * @param key          the name of the property to fetch
+     * @param defaultValue the value to return if the key is missing or blank
+     * @return the configured value, or the default
+     */
+    public static String get(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Retrieves an integer value from the loaded .env configuration.
+     *
+     * @param key          the name of the property to fetch
+     * @param defaultValue the value to return if the key is missing, not a number,
+     *                     or outside the int range
+     * @return the configured integer, or the default
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("❌ Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Retrieves a long value from the loaded .env configuration.
+     *
+     * @param key          the name of the property to fetch
+     * @param defaultValue the value to return if the key is missing or not a number
+     * @return the configured long, or the default
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("❌ Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
 }
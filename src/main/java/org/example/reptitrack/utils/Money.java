@@ -0,0 +1,116 @@
+package org.example.reptitrack.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on whole cents held in a {@code long}.
+ * <p>
+ * Checkout totals are computed in cents so sums are exact and no boxed or
+ * intermediate objects are created per line. Conversions from the double
+ * prices stored on {@code Product} happen once per line, rounding to the
+ * nearest cent. Rates are given in basis points (1300 = 13%).
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ *     long line = Money.times(Money.ofDollars(product.getPrice()), quantity);
+ *     long tax  = Money.percentOf(line, 1300);
+ *     label.setText(Money.format(line + tax));
+ * }</pre>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+public final class Money {
+
+    private static final long BASIS_POINTS = 10_000;
+    private static final long NICKEL = 5;
+
+    private Money() {}
+
+    // ─────────────────────────────────────────────────────────────
+    // Conversion
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Converts a dollar amount to cents, rounding half away from zero.
+     *
+     * @param dollars the amount in dollars (e.g. a product price)
+     * @return the amount in cents
+     */
+    public static long ofDollars(double dollars) {
+        return Math.round(dollars * 100);
+    }
+
+    /**
+     * Parses an amount typed by the user, such as {@code "20"} or {@code "19.95"}.
+     *
+     * @param text the amount in dollars
+     * @return the amount in cents, rounded half-up to the nearest cent
+     * @throws NumberFormatException if the text is not a valid amount
+     */
+    public static long parse(String text) {
+        try {
+            return new BigDecimal(text.trim().replace("$", ""))
+                    .movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /**
+     * Formats cents as dollars, e.g. {@code 123456} as {@code "$1234.56"}.
+     *
+     * @param cents the amount in cents
+     * @return the formatted amount
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-$" : "$") + (abs / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Arithmetic
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Multiplies a unit amount by a quantity.
+     *
+     * @param cents    the unit amount in cents
+     * @param quantity the quantity
+     * @return the line amount in cents
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long times(long cents, int quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * Applies a rate to an amount, rounding half away from zero to the nearest cent.
+     *
+     * @param cents       the amount in cents
+     * @param basisPoints the rate in basis points (1300 = 13%)
+     * @return the rounded result in cents
+     */
+    public static long percentOf(long cents, int basisPoints) {
+        long product = Math.multiplyExact(cents, basisPoints);
+        long half = product >= 0 ? BASIS_POINTS / 2 : -BASIS_POINTS / 2;
+        return (product + half) / BASIS_POINTS;
+    }
+
+    /**
+     * Rounds an amount to the nearest five cents for cash payment
+     * (1–2 cents round down, 3–4 round up).
+     *
+     * @param cents the amount in cents
+     * @return the amount rounded to a multiple of five cents
+     */
+    public static long roundToNickel(long cents) {
+        long half = cents >= 0 ? NICKEL / 2 : -(NICKEL / 2);
+        return (cents + half) / NICKEL * NICKEL;
+    }
+}
@@ -1,18 +1,21 @@
 package org.example.reptitrack.views;
 
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
-import org.example.reptitrack.dao.*;
+import org.example.reptitrack.dao.ProductRepository;
 import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.AsyncDataService;
 
 /**
  * View for adding a new product to the system.
  * Inserts the product into both the category table and the Products table.
- * Returns to the Admin Terminal after submission or cancellation.
+ * Returns to the Admin Terminal after submission or cancellation, adding the
+ * new row to the category table in place rather than reloading it.
  *
  * @author Jarrod
  * @since 2025-04-06
@@ -22,11 +25,13 @@ public class AddProductView {
     /**
      * Generates the scene for creating a new product under a specific category.
      *
-     * @param stage    the main stage
-     * @param category the category to which the product is being added
+     * @param stage      the main stage
+     * @param category   the category to which the product is being added
+     * @param tableData  the Admin Terminal rows for this category, patched on save
+     * @param adminScene the Admin Terminal scene to return to
      * @return the assembled JavaFX Scene
      */
-    public static Scene createScene(Stage stage, String category) {
+    public static Scene createScene(Stage stage, String category, ObservableList<Product> tableData, Scene adminScene) {
         Label titleLabel = new Label("Add New Product to " + category);
         titleLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
 
@@ -57,6 +62,7 @@ public class AddProductView {
         // ─────────────── Action Buttons ───────────────
         Button saveButton = new Button("Save");
         saveButton.setOnAction(e -> {
+            Product product;
             try {
                 String name = nameField.getText().trim();
                 int qty = Integer.parseInt(quantityField.getText().trim());
@@ -64,24 +70,32 @@ public class AddProductView {
                 double price = Double.parseDouble(priceField.getText().trim());
                 int minStock = Integer.parseInt(minStockField.getText().trim());
 
-                Product product = new Product(0, name, category, qty, supplier, price, minStock);
-
-                switch (category.toLowerCase()) {
-                    case "animals" -> AnimalDAO.insertAnimal(product);
-                    case "enclosures" -> EnclosureDAO.insertEnclosure(product);
-                    case "feeders" -> FeederDAO.insertFeeder(product);
-                    case "supplies" -> SupplyDAO.insertSupply(product);
-                    default -> throw new IllegalArgumentException("Unsupported category: " + category);
-                }
-
-                stage.setScene(AdminTerminalView.createAdminScene(stage));
+                product = new Product(0, name, category, qty, supplier, price, minStock);
             } catch (Exception ex) {
                 errorLabel.setText("❌ Invalid input: " + ex.getMessage());
+                return;
             }
+
+            // Writes Products and the category table once, in one transaction, off the FX thread
+            saveButton.setDisable(true);
+            errorLabel.setText("");
+            AsyncDataService.execute(() -> ProductRepository.insert(category, product), rows -> {
+                saveButton.setDisable(false);
+                if (rows <= 0) {
+                    errorLabel.setText("❌ Failed to save product. Please try again.");
+                    return;
+                }
+
+                tableData.add(product);
+                AdminTerminalView.returnTo(stage, adminScene);
+            }, error -> {
+                saveButton.setDisable(false);
+                errorLabel.setText("❌ Failed to save product. Please try again.");
+            });
         });
 
         Button cancelButton = new Button("Cancel");
-        cancelButton.setOnAction(e -> stage.setScene(AdminTerminalView.createAdminScene(stage)));
+        cancelButton.setOnAction(e -> AdminTerminalView.returnTo(stage, adminScene));
 
         HBox buttonBar = new HBox(10, saveButton, cancelButton);
         buttonBar.setAlignment(Pos.CENTER);
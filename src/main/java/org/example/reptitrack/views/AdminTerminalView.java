@@ -10,8 +10,11 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import org.example.reptitrack.MainApplication;
-import org.example.reptitrack.dao.*;
+import org.example.reptitrack.dao.ProductRepository;
 import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.AsyncDataService;
+import org.example.reptitrack.services.CategoryLoader;
+
 
 /**
  * View for the Admin Terminal.
@@ -35,11 +38,11 @@ public class AdminTerminalView {
         Label titleLabel = new Label("ReptiTrack - Admin Terminal");
         titleLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
 
+        // Each tab loads its category only when it is first selected
         TabPane tabPane = new TabPane();
-        tabPane.getTabs().add(createProductTab("Animals", FXCollections.observableArrayList(AnimalDAO.getAllAnimals()), stage));
-        tabPane.getTabs().add(createProductTab("Enclosures", FXCollections.observableArrayList(EnclosureDAO.getAllEnclosures()), stage));
-        tabPane.getTabs().add(createProductTab("Feeders", FXCollections.observableArrayList(FeederDAO.getAllFeeders()), stage));
-        tabPane.getTabs().add(createProductTab("Supplies", FXCollections.observableArrayList(SupplyDAO.getAllSupplies()), stage));
+        for (String category : CategoryLoader.CATEGORIES) {
+            tabPane.getTabs().add(createProductTab(category, FXCollections.observableArrayList(), stage));
+        }
 
         Button backBtn = new Button("Back to Dashboard");
         backBtn.setOnAction(e -> MainApplication.setRoot("MainDashboard"));
@@ -69,6 +72,8 @@ public class AdminTerminalView {
      */
     private static Tab createProductTab(String title, ObservableList<Product> data, Stage stage) {
         TableView<Product> table = new TableView<>(data);
+        Label placeholder = new Label();
+        table.setPlaceholder(placeholder);
         table.setColumnResizePolicy(TableView.UNCONSTRAINED_RESIZE_POLICY);
 
         table.getColumns().addAll(
@@ -81,13 +86,13 @@ public class AdminTerminalView {
         );
 
         Button addButton = new Button("➕ Add");
-        addButton.setOnAction(e -> stage.setScene(AddProductView.createScene(stage, title)));
+        addButton.setOnAction(e -> stage.setScene(AddProductView.createScene(stage, title, data, table.getScene())));
 
         Button editButton = new Button("✏️ Edit Selected");
         editButton.setOnAction(e -> {
             Product selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                stage.setScene(EditProductView.createScene(stage, selected, title));
+                stage.setScene(EditProductView.createScene(stage, selected, title, data, table.getScene()));
             }
         });
 
@@ -95,14 +100,19 @@ public class AdminTerminalView {
         deleteButton.setOnAction(e -> {
             Product selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                switch (title.toLowerCase()) {
-                    case "animals"    -> AnimalDAO.deleteAnimal(selected.getId());
-                    case "enclosures" -> EnclosureDAO.deleteEnclosure(selected.getId());
-                    case "feeders"    -> FeederDAO.deleteFeeder(selected.getId());
-                    case "supplies"   -> SupplyDAO.deleteSupply(selected.getId());
-                }
-                ProductDAO.deleteProductById(selected.getId());
-                table.setItems(getFreshData(title));
+                // Deletes from the category table and Products once, in one transaction, off the FX thread
+                deleteButton.setDisable(true);
+                AsyncDataService.execute(() -> ProductRepository.delete(title, selected.getId()), rows -> {
+                    deleteButton.setDisable(false);
+                    if (rows > 0) {
+                        data.remove(selected);
+                    } else {
+                        showDeleteFailed();
+                    }
+                }, error -> {
+                    deleteButton.setDisable(false);
+                    showDeleteFailed();
+                });
             }
         });
 
@@ -116,23 +126,20 @@ public class AdminTerminalView {
 
         Tab tab = new Tab(title, content);
         tab.setClosable(false);
+        CategoryTabs.loadOnFirstSelection(tab, title, data, placeholder);
         return tab;
     }
 
     /**
-     * Fetches updated observable data for a specific category.
+     * Returns to an existing Admin Terminal scene after an add or edit.
+     * The scene's tables have already been patched in place, so nothing is reloaded.
      *
-     * @param category the category to refresh
-     * @return fresh observable list for the given category
+     * @param stage      the main application stage
+     * @param adminScene the Admin Terminal scene to show again
      */
-    private static ObservableList<Product> getFreshData(String category) {
-        return switch (category.toLowerCase()) {
-            case "animals"    -> FXCollections.observableArrayList(AnimalDAO.getAllAnimals());
-            case "enclosures" -> FXCollections.observableArrayList(EnclosureDAO.getAllEnclosures());
-            case "feeders"    -> FXCollections.observableArrayList(FeederDAO.getAllFeeders());
-            case "supplies"   -> FXCollections.observableArrayList(SupplyDAO.getAllSupplies());
-            default           -> FXCollections.observableArrayList();
-        };
+    static void returnTo(Stage stage, Scene adminScene) {
+        stage.setScene(adminScene);
+        stage.sizeToScene();
     }
 
     /**
@@ -150,4 +157,8 @@ public class AdminTerminalView {
         column.setPrefWidth(width);
         return column;
     }
+
+    private static void showDeleteFailed() {
+        new Alert(Alert.AlertType.ERROR, "The product could not be deleted.", ButtonType.OK).showAndWait();
+    }
 }
@@ -1,7 +1,6 @@
 package org.example.reptitrack.views;
 
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,20 +9,30 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import org.example.reptitrack.MainApplication;
-import org.example.reptitrack.dao.*;
+import org.example.reptitrack.dao.ProductColumn;
 import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.CategoryLoader;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Displays categorized tables of products for user browsing.
  * Each category is shown in a tab within a TabPane.
  * <p>
  * This view is read-only and returns to the main dashboard via a button.
+ * Tables are filled page by page as the user scrolls (see {@link ProductPager}).
  *
  * @author Jarrod
  * @since 2025-04-06
  */
 public class CategoriesView {
 
+    // The columns each category table renders; nothing else is fetched
+    private static final Set<ProductColumn> TABLE_COLUMNS = EnumSet.of(
+            ProductColumn.PRODUCT_NAME, ProductColumn.STOCK_QUANTITY,
+            ProductColumn.SUPPLIER, ProductColumn.PRICE);
+
     /**
      * Creates and returns the scene for the Categories view.
      *
@@ -35,11 +44,11 @@ public class CategoriesView {
         titleLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
 
         // ─────────────── Category Tabs ───────────────
+        // Each tab fetches its first page only when it is first selected
         TabPane tabPane = new TabPane();
-        tabPane.getTabs().add(createCategoryTab("Animals", FXCollections.observableArrayList(AnimalDAO.getAllAnimals())));
-        tabPane.getTabs().add(createCategoryTab("Enclosures", FXCollections.observableArrayList(EnclosureDAO.getAllEnclosures())));
-        tabPane.getTabs().add(createCategoryTab("Feeders", FXCollections.observableArrayList(FeederDAO.getAllFeeders())));
-        tabPane.getTabs().add(createCategoryTab("Supplies", FXCollections.observableArrayList(SupplyDAO.getAllSupplies())));
+        for (String category : CategoryLoader.CATEGORIES) {
+            tabPane.getTabs().add(createCategoryTab(category));
+        }
 
         // ─────────────── Navigation ───────────────
         Button backButton = new Button("Back to Dashboard");
@@ -65,12 +74,13 @@ public class CategoriesView {
      * Creates a tab containing a table of products for a given category.
      *
      * @param title the title of the tab (e.g. "Animals")
-     * @param data  the product data to show in the table
      * @return a non-closable Tab for the category
      */
-    private static Tab createCategoryTab(String title, ObservableList<Product> data) {
+    private static Tab createCategoryTab(String title) {
         TableView<Product> table = new TableView<>();
-        table.setItems(data);
+        table.setItems(FXCollections.observableArrayList());
+        Label placeholder = new Label();
+        table.setPlaceholder(placeholder);
         table.setColumnResizePolicy(TableView.UNCONSTRAINED_RESIZE_POLICY);
 
         table.getColumns().addAll(
@@ -86,6 +96,8 @@ public class CategoriesView {
 
         Tab tab = new Tab(title, wrapper);
         tab.setClosable(false);
+        ProductPager pager = new ProductPager(table, title, TABLE_COLUMNS, placeholder);
+        CategoryTabs.onFirstSelection(tab, title, placeholder, pager::start);
         return tab;
     }
 
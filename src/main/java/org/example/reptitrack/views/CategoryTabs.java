@@ -0,0 +1,91 @@
+package org.example.reptitrack.views;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.CategoryLoader;
+
+import java.util.function.Consumer;
+
+/**
+ * Shared helper for the tabbed category views.
+ * <p>
+ * Defers loading a tab's products until the tab is first selected, showing
+ * a placeholder while the background fetch runs. Once loaded, the rows stay
+ * in the tab for the rest of the scene, so re-selecting it is instant. If
+ * the load fails, the placeholder says so and offers a retry; selecting the
+ * tab again also retries.
+ * </p>
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+class CategoryTabs {
+
+    /**
+     * Loads the tab's category the first time the tab becomes selected.
+     *
+     * @param tab         the category tab
+     * @param category    the category shown in the tab
+     * @param data        the list backing the tab's table
+     * @param placeholder the table's placeholder label
+     */
+    static void loadOnFirstSelection(Tab tab, String category, ObservableList<Product> data, Label placeholder) {
+        onFirstSelection(tab, category, placeholder, onFailed -> {
+            placeholder.setText("Loading " + category.toLowerCase() + "...");
+
+            CategoryLoader.load(category, products -> {
+                data.setAll(products);
+                placeholder.setText("No " + category.toLowerCase() + " found.");
+            }, onFailed);
+        });
+    }
+
+    /**
+     * Runs {@code load} the first time the tab becomes selected. The load is
+     * given a callback to run if it fails; the tab then shows the failure in
+     * the placeholder with a Retry button, and loads again when retried or
+     * next selected.
+     *
+     * @param tab         the category tab
+     * @param category    the category shown in the tab
+     * @param placeholder the table's placeholder label
+     * @param load        the work to run on first selection, given its failure callback
+     */
+    static void onFirstSelection(Tab tab, String category, Label placeholder, Consumer<Runnable> load) {
+        boolean[] requested = {false};
+        Runnable[] loadOnce = new Runnable[1];
+
+        Button retryButton = new Button("Retry");
+        retryButton.setOnAction(e -> loadOnce[0].run());
+        placeholder.setContentDisplay(ContentDisplay.BOTTOM);
+
+        Runnable onFailed = () -> {
+            requested[0] = false;
+            placeholder.setText("❌ Could not load " + category.toLowerCase() + ".");
+            placeholder.setGraphic(retryButton);
+        };
+
+        loadOnce[0] = () -> {
+            if (!requested[0]) {
+                requested[0] = true;
+                placeholder.setGraphic(null);
+                load.accept(onFailed);
+            }
+        };
+
+        tab.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
+            if (isSelected) {
+                loadOnce[0].run();
+            }
+        });
+
+        // Covers a tab that is already selected when this is called
+        if (tab.isSelected()) {
+            loadOnce[0].run();
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package org.example.reptitrack.views;
 
-import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -11,7 +12,17 @@ import javafx.stage.Stage;
 import org.example.reptitrack.MainApplication;
 import org.example.reptitrack.dao.*;
 import org.example.reptitrack.models.Product;
+import org.example.reptitrack.models.Sale;
+import org.example.reptitrack.services.AsyncDataService;
 import org.example.reptitrack.services.CartService;
+import org.example.reptitrack.services.PricingEngine;
+import org.example.reptitrack.services.SalesLedger;
+import org.example.reptitrack.services.StockReservations;
+import org.example.reptitrack.utils.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
 
 /**
  * View for the checkout process of the ReptiTrack system.
@@ -48,50 +59,32 @@ public class CheckoutView {
         qtyCol.setCellValueFactory(new PropertyValueFactory<>("stockQuantity"));
         qtyCol.setPrefWidth(60);
 
-        TableColumn<Product, Double> priceCol = new TableColumn<>("Price");
-        priceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
-        priceCol.setPrefWidth(80);
-
-        TableColumn<Product, Double> subtotalCol = new TableColumn<>("Subtotal");
-        subtotalCol.setCellValueFactory(cellData -> {
-            Product p = cellData.getValue();
-            return new SimpleObjectProperty<>(p.getPrice() * p.getStockQuantity());
-        });
-        subtotalCol.setPrefWidth(90);
-
-        TableColumn<Product, Double> taxCol = new TableColumn<>("Tax (13%)");
-        taxCol.setCellValueFactory(cellData -> {
-            Product p = cellData.getValue();
-            return new SimpleObjectProperty<>(p.getPrice() * p.getStockQuantity() * 0.13);
-        });
-        taxCol.setPrefWidth(90);
-
-        TableColumn<Product, Double> totalCol = new TableColumn<>("Total");
-        totalCol.setCellValueFactory(cellData -> {
-            double subtotal = cellData.getValue().getPrice() * cellData.getValue().getStockQuantity();
-            return new SimpleObjectProperty<>(subtotal * 1.13);
-        });
-        totalCol.setPrefWidth(90);
+        // Money columns are priced in exact cents by the category rules and shown as formatted text
+        PricingEngine pricing = PricingEngine.getInstance();
+        TableColumn<Product, String> priceCol = moneyColumn("Price", p -> Money.ofDollars(p.getPrice()), 80);
+        TableColumn<Product, String> subtotalCol = moneyColumn("Subtotal", p -> pricing.price(p).net(), 90);
+        TableColumn<Product, String> taxCol = moneyColumn("Tax", p -> pricing.price(p).tax(), 90);
+        TableColumn<Product, String> totalCol = moneyColumn("Total", p -> pricing.price(p).total(), 90);
 
         cartTable.getColumns().addAll(nameCol, qtyCol, priceCol, subtotalCol, taxCol, totalCol);
 
         // ─────────────── Totals Summary ───────────────
         Label subtotalLabel = new Label();
+        Label discountLabel = new Label();
         Label taxLabel = new Label();
         Label totalLabel = new Label();
 
         subtotalLabel.setStyle("-fx-font-size: 14px;");
+        discountLabel.setStyle("-fx-font-size: 14px;");
         taxLabel.setStyle("-fx-font-size: 14px;");
         totalLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
 
-        updateTotalLabels(cartTable, subtotalLabel, taxLabel, totalLabel);
-        VBox totalsBox = new VBox(5, subtotalLabel, taxLabel, totalLabel);
+        updateTotalLabels(subtotalLabel, discountLabel, taxLabel, totalLabel);
+        VBox totalsBox = new VBox(5, subtotalLabel, discountLabel, taxLabel, totalLabel);
         totalsBox.setAlignment(Pos.CENTER_RIGHT);
 
         // ─────────────── Buttons ───────────────
         Button completeButton = new Button("Complete Sale");
-        completeButton.setOnAction(e -> handlePayment(cartTable));
-
         Button backButton = new Button("Back to Dashboard");
         backButton.setOnAction(e -> MainApplication.setRoot("MainDashboard"));
 
@@ -99,6 +92,7 @@ public class CheckoutView {
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
         HBox bottomBar = new HBox(10, backButton, spacer, completeButton);
+        completeButton.setOnAction(e -> handlePayment(bottomBar));
         bottomBar.setPadding(new Insets(10, 0, 0, 0));
 
         // ─────────────── Layout ───────────────
@@ -117,16 +111,14 @@ public class CheckoutView {
     }
 
     /**
-     * Handles the checkout logic for both cash and card payments.
+     * Handles the checkout logic for both cash and card payments. The sale is
+     * committed before the card prompt or the change due is shown, so no
+     * payment is taken for a sale that could not be saved.
      *
-     * @param cartTable the table containing current cart items
+     * @param controls the checkout buttons, disabled while the sale is saved
      */
-    private static void handlePayment(TableView<Product> cartTable) {
-        double subtotal = cartTable.getItems().stream()
-                .mapToDouble(p -> p.getPrice() * p.getStockQuantity())
-                .sum();
-        double tax = subtotal * 0.13;
-        double total = subtotal + tax;
+    private static void handlePayment(Node controls) {
+        long total = CartService.getInstance().getTotalCents();
 
         ChoiceDialog<String> paymentDialog = new ChoiceDialog<>("Cash", "Cash", "Card");
         paymentDialog.setTitle("Payment");
@@ -134,12 +126,13 @@ public class CheckoutView {
         paymentDialog.setContentText("Payment Type:");
         paymentDialog.showAndWait().ifPresent(method -> {
             if (method.equals("Card")) {
-                Alert cardAlert = new Alert(Alert.AlertType.INFORMATION,
-                        "Please finalize the sale on the card terminal.\n\nTotal: $" + String.format("%.2f", total),
-                        ButtonType.OK);
-                cardAlert.setHeaderText("Card Payment");
-                cardAlert.showAndWait();
-                finishSale();
+                finishSale(controls, method, () -> {
+                    Alert cardAlert = new Alert(Alert.AlertType.INFORMATION,
+                            "Please finalize the sale on the card terminal.\n\nTotal: " + Money.format(total),
+                            ButtonType.OK);
+                    cardAlert.setHeaderText("Card Payment");
+                    cardAlert.showAndWait();
+                });
 
             } else if (method.equals("Cash")) {
                 TextInputDialog cashDialog = new TextInputDialog();
@@ -149,26 +142,26 @@ public class CheckoutView {
 
                 cashDialog.showAndWait().ifPresent(input -> {
                     try {
-                        double cashReceived = Double.parseDouble(input);
-                        double roundedTotal = Math.round(total * 20.0) / 20.0;
+                        long cashReceived = Money.parse(input);
+                        long roundedTotal = Money.roundToNickel(total);
 
                         if (cashReceived < roundedTotal) {
                             new Alert(Alert.AlertType.ERROR,
-                                    "Customer did not provide enough cash.\nAmount due: $" + String.format("%.2f", roundedTotal),
+                                    "Customer did not provide enough cash.\nAmount due: " + Money.format(roundedTotal),
                                     ButtonType.OK).showAndWait();
                             return;
                         }
 
-                        double change = cashReceived - roundedTotal;
-                        double roundedChange = Math.round(change * 20.0) / 20.0;
+                        long change = Money.roundToNickel(cashReceived - roundedTotal);
 
-                        Alert changeAlert = new Alert(Alert.AlertType.INFORMATION,
-                                String.format("✅ Sale Completed!\n\nAmount Received: $%.2f\nTotal Owing: $%.2f\nChange Due: $%.2f",
-                                        cashReceived, roundedTotal, roundedChange),
-                                ButtonType.OK);
-                        changeAlert.setHeaderText("Cash Payment");
-                        changeAlert.showAndWait();
-                        finishSale();
+                        finishSale(controls, method, () -> {
+                            Alert changeAlert = new Alert(Alert.AlertType.INFORMATION,
+                                    String.format("✅ Sale Completed!\n\nAmount Received: %s\nTotal Owing: %s\nChange Due: %s",
+                                            Money.format(cashReceived), Money.format(roundedTotal), Money.format(change)),
+                                    ButtonType.OK);
+                            changeAlert.setHeaderText("Cash Payment");
+                            changeAlert.showAndWait();
+                        });
 
                     } catch (NumberFormatException ex) {
                         new Alert(Alert.AlertType.ERROR, "Invalid cash amount entered.", ButtonType.OK).showAndWait();
@@ -179,50 +172,92 @@ public class CheckoutView {
     }
 
     /**
-     * Updates summary labels based on the current cart contents.
+     * Updates summary labels from the cart's running totals.
      *
-     * @param table         the product cart table
      * @param subtotalLabel label for subtotal
+     * @param discountLabel label for discounts, hidden when there are none
      * @param taxLabel      label for tax
      * @param totalLabel    label for total
      */
-    private static void updateTotalLabels(TableView<Product> table, Label subtotalLabel, Label taxLabel, Label totalLabel) {
-        double subtotal = table.getItems().stream()
-                .mapToDouble(p -> p.getPrice() * p.getStockQuantity())
-                .sum();
-        double tax = subtotal * 0.13;
-        double total = subtotal + tax;
-
-        subtotalLabel.setText(String.format("Subtotal: $%.2f", subtotal));
-        taxLabel.setText(String.format("Tax (13%%): $%.2f", tax));
-        totalLabel.setText(String.format("Total: $%.2f", total));
+    private static void updateTotalLabels(Label subtotalLabel, Label discountLabel, Label taxLabel, Label totalLabel) {
+        CartService cart = CartService.getInstance();
+        subtotalLabel.setText("Subtotal: " + Money.format(cart.getSubtotalCents()));
+        discountLabel.setText("Discounts: -" + Money.format(cart.getDiscountCents()));
+        discountLabel.setVisible(cart.getDiscountCents() > 0);
+        discountLabel.setManaged(cart.getDiscountCents() > 0);
+        taxLabel.setText("Tax: " + Money.format(cart.getTaxCents()));
+        totalLabel.setText("Total: " + Money.format(cart.getTotalCents()));
     }
 
     /**
-     * Completes the sale by updating stock quantities and clearing the cart.
-     * Also updates corresponding category tables.
+     * Completes the sale by converting the cart's stock reservations into the
+     * sale in one transaction (Products and category tables), then removes the
+     * sold units from the cart. The transaction runs in the background so the
+     * UI stays responsive; if it fails, the cart is kept so the sale can be
+     * retried. Once stock is committed, the sale is handed to the {@link SalesLedger}.
+     * <p>
+     * The sale is taken from a snapshot of the cart, and the checkout buttons
+     * (including Back) stay disabled until the commit finishes, so the cart
+     * cannot change under it.
+     * </p>
+     *
+     * @param controls      disabled until the sale has been saved, to prevent double submission
+     * @param paymentMethod "Cash" or "Card", recorded with the sale
+     * @param onCommitted   shows the payment step; run only once the sale is saved
      */
-    private static void finishSale() {
-        for (Product p : CartService.getInstance().getCartItems()) {
-            int currentQty = ProductDAO.getQuantityById(p.getId());
-            int updatedQty = Math.max(0, currentQty - p.getStockQuantity());
-            p.setStockQuantity(updatedQty);
-
-            ProductDAO.updateProduct(p);
-
-            switch (p.getCategory().toLowerCase()) {
-                case "animals"   -> AnimalDAO.updateAnimal(p);
-                case "enclosures"-> EnclosureDAO.updateEnclosure(p);
-                case "feeders"   -> FeederDAO.updateFeeder(p);
-                case "supplies"  -> SupplyDAO.updateSupply(p);
-            }
+    private static void finishSale(Node controls, String paymentMethod, Runnable onCommitted) {
+        List<Product> lines = new ArrayList<>();
+        for (Product line : CartService.getInstance().getCartItems()) {
+            lines.add(new Product(line.getId(), line.getProductName(), line.getCategory(), line.getStockQuantity(),
+                    line.getSupplier(), line.getPrice(), line.getMinStockLevel()));
         }
+        Sale sale = CartService.getInstance().toSale(paymentMethod);
+        controls.setDisable(true);
+        CartService.getInstance().beginSale(sale);
+
+        String terminalId = StockReservations.getInstance().getTerminalId();
+        AsyncDataService.execute(() -> CheckoutDAO.commitSale(terminalId, lines), committed -> {
+            controls.setDisable(false);
+            if (!committed) {
+                CartService.getInstance().saleFailed();
+                showSaleFailed();
+                return;
+            }
+
+            SalesLedger.getInstance().record(sale);
+            CartService.getInstance().removeSold(sale);
+            onCommitted.run();
+
+            Alert receipt = new Alert(Alert.AlertType.INFORMATION, "🧾 Receipt complete. Thank you!", ButtonType.OK);
+            receipt.setHeaderText(null);
+            receipt.showAndWait();
+            MainApplication.setRoot("MainDashboard");
+        }, error -> {
+            controls.setDisable(false);
+            CartService.getInstance().saleFailed();
+            showSaleFailed();
+        });
+    }
 
-        CartService.getInstance().clearCart();
+    /**
+     * Creates a read-only column showing a cent amount computed from each line.
+     *
+     * @param title the column title
+     * @param cents computes the amount in cents for a line
+     * @param width the column width
+     * @return the created TableColumn
+     */
+    private static TableColumn<Product, String> moneyColumn(String title, ToLongFunction<Product> cents, int width) {
+        TableColumn<Product, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(Money.format(cents.applyAsLong(cellData.getValue()))));
+        column.setPrefWidth(width);
+        return column;
+    }
 
-        Alert receipt = new Alert(Alert.AlertType.INFORMATION, "🧾 Receipt complete. Thank you!", ButtonType.OK);
-        receipt.setHeaderText(null);
-        receipt.showAndWait();
-        MainApplication.setRoot("MainDashboard");
+    private static void showSaleFailed() {
+        new Alert(Alert.AlertType.ERROR,
+                "The sale could not be saved. No stock was changed; do not take payment.\n\n"
+                        + "An item may have sold out, or the database may be unreachable; please try again.",
+                ButtonType.OK).showAndWait();
     }
 }
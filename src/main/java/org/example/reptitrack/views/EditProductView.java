@@ -1,19 +1,31 @@
 package org.example.reptitrack.views;
 
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
-import org.example.reptitrack.dao.*;
+import org.example.reptitrack.dao.ProductDAO;
+import org.example.reptitrack.dao.ProductRepository;
 import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.AsyncDataService;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Provides a user interface to edit a product in both
  * the product table and its corresponding category table.
  *
  * This view receives the selected product and category as parameters.
+ * On save, the edited row is replaced in the Admin Terminal table in place
+ * rather than reloading the category.
+ *
+ * Saves only succeed if nobody else (including a till making a sale) has
+ * changed the product since the form was filled. Otherwise the user is shown
+ * what changed and can merge their edits onto the latest values or reload.
  *
  * @author Jarrod
  * @since 2025-04-06
@@ -25,19 +37,26 @@ public class EditProductView {
      *
      * @param stage    the main application window
      * @param product  the product to edit
-     * @param category the category of the product (Animals, Feeders, etc.)
+     * @param category   the category of the product (Animals, Feeders, etc.)
+     * @param tableData  the Admin Terminal rows for this category, patched on save
+     * @param adminScene the Admin Terminal scene to return to
      * @return a Scene populated with the editing form
      */
-    public static Scene createScene(Stage stage, Product product, String category) {
+    public static Scene createScene(Stage stage, Product product, String category,
+                                    ObservableList<Product> tableData, Scene adminScene) {
         Label titleLabel = new Label("Edit Product - " + product.getProductName());
         titleLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
 
         // ─────────────── Form Fields ───────────────
-        TextField nameField = new TextField(product.getProductName());
-        TextField quantityField = new TextField(String.valueOf(product.getStockQuantity()));
-        TextField supplierField = new TextField(product.getSupplier());
-        TextField priceField = new TextField(String.valueOf(product.getPrice()));
-        TextField minStockField = new TextField(String.valueOf(product.getMinStockLevel()));
+        TextField nameField = new TextField();
+        TextField quantityField = new TextField();
+        TextField supplierField = new TextField();
+        TextField priceField = new TextField();
+        TextField minStockField = new TextField();
+        fillForm(product, nameField, quantityField, supplierField, priceField, minStockField);
+
+        // The values the form was filled from; edits are saved against its version
+        AtomicReference<Product> base = new AtomicReference<>(product);
 
         Label errorLabel = new Label();
         errorLabel.setStyle("-fx-text-fill: red;");
@@ -49,36 +68,54 @@ public class EditProductView {
         // ─────────────── Buttons ───────────────
         Button saveButton = new Button("Save Changes");
         saveButton.setOnAction(e -> {
+            Product updated;
             try {
-                // Parse and apply updated field values
-                product.setProductName(nameField.getText().trim());
-                product.setStockQuantity(Integer.parseInt(quantityField.getText().trim()));
-                product.setSupplier(supplierField.getText().trim());
-                product.setPrice(Double.parseDouble(priceField.getText().trim()));
-                product.setMinStockLevel(Integer.parseInt(minStockField.getText().trim()));
-
-                // Update in category table
-                switch (category.toLowerCase()) {
-                    case "animals"   -> AnimalDAO.updateAnimal(product);
-                    case "enclosures"-> EnclosureDAO.updateEnclosure(product);
-                    case "feeders"   -> FeederDAO.updateFeeder(product);
-                    case "supplies"  -> SupplyDAO.updateSupply(product);
-                    default -> throw new IllegalArgumentException("Unsupported category: " + category);
-                }
-
-                // Update in products table
-                ProductDAO.updateProduct(product);
-
-                // Return to admin terminal
-                stage.setScene(AdminTerminalView.createAdminScene(stage));
-
+                // Parse updated field values into a copy so a failed save leaves the row untouched
+                updated = new Product(
+                        product.getId(),
+                        nameField.getText().trim(),
+                        product.getCategory(),
+                        Integer.parseInt(quantityField.getText().trim()),
+                        supplierField.getText().trim(),
+                        Double.parseDouble(priceField.getText().trim()),
+                        Integer.parseInt(minStockField.getText().trim())
+                );
+                updated.setVersion(base.get().getVersion());
             } catch (Exception ex) {
                 errorLabel.setText("❌ Invalid input: " + ex.getMessage());
+                return;
             }
+
+            // Update Products and the category table once, in one transaction, if nobody changed it
+            // since; on a conflict, read the latest row in the same background task
+            saveButton.setDisable(true);
+            errorLabel.setText("");
+            AsyncDataService.execute(() -> {
+                if (ProductRepository.update(category, updated) > 0) {
+                    return new SaveResult(true, null);
+                }
+                return new SaveResult(false, ProductDAO.getProductById(product.getId()));
+            }, result -> {
+                saveButton.setDisable(false);
+                if (result.saved()) {
+                    // Replace the row in place so the table redraws it, then return to admin terminal
+                    int row = tableData.indexOf(product);
+                    if (row >= 0) {
+                        tableData.set(row, updated);
+                    }
+                    AdminTerminalView.returnTo(stage, adminScene);
+                    return;
+                }
+                showConflict(result.latest(), updated, base, errorLabel,
+                        nameField, quantityField, supplierField, priceField, minStockField);
+            }, error -> {
+                saveButton.setDisable(false);
+                errorLabel.setText("❌ Product was not saved. Please try again.");
+            });
         });
 
         Button cancelButton = new Button("Cancel");
-        cancelButton.setOnAction(e -> stage.setScene(AdminTerminalView.createAdminScene(stage)));
+        cancelButton.setOnAction(e -> AdminTerminalView.returnTo(stage, adminScene));
 
         HBox buttonBar = new HBox(10, saveButton, cancelButton);
         buttonBar.setAlignment(Pos.CENTER);
@@ -92,4 +129,118 @@ public class EditProductView {
 
         return new Scene(layout);
     }
+
+    // ─────────────────────────────────────────────────────────────
+    // Conflict Handling
+    // ─────────────────────────────────────────────────────────────
+
+    /**
+     * Outcome of a save: whether it was written, and if not, the product's
+     * current row (null if it no longer exists or could not be read).
+     */
+    private record SaveResult(boolean saved, Product latest) {}
+
+    /**
+     * Explains why a save did not go through and, if someone else changed the
+     * product meanwhile, offers to merge the user's edits or reload.
+     *
+     * @param latest  the product's current row, or null if it could not be read
+     * @param updated the values the user tried to save
+     * @param base    the values the form was filled from; moved to latest on merge or reload
+     */
+    private static void showConflict(Product latest, Product updated, AtomicReference<Product> base, Label errorLabel,
+                                     TextField nameField, TextField quantityField, TextField supplierField,
+                                     TextField priceField, TextField minStockField) {
+        if (latest == null) {
+            errorLabel.setText("❌ Product was not saved. It may have been deleted.");
+            return;
+        }
+        if (latest.getVersion() == updated.getVersion()) {
+            errorLabel.setText("❌ Product was not saved. Please try again.");
+            return;
+        }
+
+        // Someone else changed the product while it was being edited
+        ButtonType mergeButton = new ButtonType("Merge My Changes");
+        ButtonType reloadButton = new ButtonType("Discard Mine & Reload");
+        Alert conflict = new Alert(Alert.AlertType.WARNING,
+                describeChanges(base.get(), latest), mergeButton, reloadButton, ButtonType.CANCEL);
+        conflict.setHeaderText("This product was changed while you were editing it");
+
+        conflict.showAndWait().ifPresent(choice -> {
+            if (choice == mergeButton) {
+                fillForm(merge(base.get(), updated, latest),
+                        nameField, quantityField, supplierField, priceField, minStockField);
+                base.set(latest);
+                errorLabel.setText("Your changes were applied to the latest values. Review and save again.");
+            } else if (choice == reloadButton) {
+                fillForm(latest, nameField, quantityField, supplierField, priceField, minStockField);
+                base.set(latest);
+                errorLabel.setText("Reloaded the latest values.");
+            }
+        });
+    }
+
+    /**
+     * Three-way merge of the user's edits onto the latest values. Fields the
+     * user did not touch take the latest value; fields the user changed keep
+     * the user's value. Stock is merged as a change: the user's adjustment is
+     * applied on top of the latest quantity, so sales made meanwhile are kept.
+     *
+     * @param base   the values the form was filled from
+     * @param mine   the user's edited values
+     * @param latest the values now in the database
+     * @return the merged product, at the latest version
+     */
+    private static Product merge(Product base, Product mine, Product latest) {
+        Product merged = new Product(
+                latest.getId(),
+                pick(base.getProductName(), mine.getProductName(), latest.getProductName()),
+                latest.getCategory(),
+                Math.max(0, latest.getStockQuantity() + mine.getStockQuantity() - base.getStockQuantity()),
+                pick(base.getSupplier(), mine.getSupplier(), latest.getSupplier()),
+                pick(base.getPrice(), mine.getPrice(), latest.getPrice()),
+                pick(base.getMinStockLevel(), mine.getMinStockLevel(), latest.getMinStockLevel())
+        );
+        merged.setVersion(latest.getVersion());
+        return merged;
+    }
+
+    private static <T> T pick(T base, T mine, T latest) {
+        return Objects.equals(mine, base) ? latest : mine;
+    }
+
+    /**
+     * Lists the fields that changed between the values the form was filled
+     * from and the values now in the database.
+     */
+    private static String describeChanges(Product base, Product latest) {
+        StringBuilder text = new StringBuilder("Changed since you opened it:\n");
+        appendChange(text, "Name", base.getProductName(), latest.getProductName());
+        appendChange(text, "Quantity", base.getStockQuantity(), latest.getStockQuantity());
+        appendChange(text, "Supplier", base.getSupplier(), latest.getSupplier());
+        appendChange(text, "Price", base.getPrice(), latest.getPrice());
+        appendChange(text, "Min Stock", base.getMinStockLevel(), latest.getMinStockLevel());
+        if (text.indexOf("•") < 0) {
+            text.append("  • No field values differ; it was saved again unchanged\n");
+        }
+        text.append("\nMerge keeps your edits (adding your quantity change to the latest quantity) "
+                + "and takes the latest values for everything else.");
+        return text.toString();
+    }
+
+    private static void appendChange(StringBuilder text, String field, Object before, Object now) {
+        if (!Objects.equals(before, now)) {
+            text.append("  • ").append(field).append(": ").append(before).append(" → ").append(now).append('\n');
+        }
+    }
+
+    private static void fillForm(Product product, TextField nameField, TextField quantityField,
+                                 TextField supplierField, TextField priceField, TextField minStockField) {
+        nameField.setText(product.getProductName());
+        quantityField.setText(String.valueOf(product.getStockQuantity()));
+        supplierField.setText(product.getSupplier());
+        priceField.setText(String.valueOf(product.getPrice()));
+        minStockField.setText(String.valueOf(product.getMinStockLevel()));
+    }
 }
@@ -1,8 +1,11 @@
 package org.example.reptitrack.views;
 
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,10 +14,23 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.example.reptitrack.MainApplication;
-import org.example.reptitrack.dao.ProductDAO;
+import org.example.reptitrack.dao.SalesReportDAO;
 import org.example.reptitrack.models.Product;
+import org.example.reptitrack.models.SalesTotal;
+import org.example.reptitrack.services.AsyncDataService;
 import org.example.reptitrack.services.CartService;
+import org.example.reptitrack.services.CatalogCache;
+import org.example.reptitrack.services.FuzzyProductMatcher;
+import org.example.reptitrack.services.LowStockTracker;
+import org.example.reptitrack.services.ProductSearchIndex;
+import org.example.reptitrack.services.SearchPipeline;
+import org.example.reptitrack.utils.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Main dashboard view that allows users to browse products,
@@ -30,6 +46,12 @@ public class MainDashboardView {
     private static final ObservableList<Product> cartItems = CartService.getInstance().getCartItems();
     private static final Label cartTotalLabel = new Label("Total: $0.00");
 
+    // Ranked typo-tolerant results shown when no name contains the query
+    private static final int FUZZY_RESULT_LIMIT = 20;
+    private static final int FUZZY_MIN_QUERY_LENGTH = 3;
+
+    private static final int TOP_SELLER_LIMIT = 10;
+
     /**
      * Creates and returns the main dashboard scene.
      *
@@ -40,11 +62,14 @@ public class MainDashboardView {
         Label titleLabel = new Label("ReptiTrack - Main Dashboard");
         titleLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
 
-        ObservableList<Product> allProducts = FXCollections.observableArrayList(ProductDAO.getAllProducts());
-        FilteredList<Product> filteredProducts = new FilteredList<>(allProducts, p -> true);
+        // Filled once the catalog has loaded in the background
+        ObservableList<Product> visibleProducts = FXCollections.observableArrayList();
+        AtomicReference<ProductSearchIndex> searchIndex = new AtomicReference<>(new ProductSearchIndex(List.of()));
 
         // Product Table
-        productTable = new TableView<>(filteredProducts);
+        Label productPlaceholder = new Label("Loading products...");
+        productTable = new TableView<>(visibleProducts);
+        productTable.setPlaceholder(productPlaceholder);
         productTable.setColumnResizePolicy(TableView.UNCONSTRAINED_RESIZE_POLICY);
         productTable.setPrefWidth(470);
         productTable.getColumns().addAll(
@@ -54,14 +79,23 @@ public class MainDashboardView {
                 createColumn("Price", "price", 100)
         );
 
-        // Double-click to add to cart
+        // Double-click to reserve one unit and add it to the cart
         productTable.setRowFactory(tv -> {
             TableRow<Product> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
                 if (event.getClickCount() == 2 && !row.isEmpty()) {
-                    CartService.getInstance().addItem(row.getItem());
-                    cartTable.refresh();
-                    updateCartTotal();
+                    Product product = row.getItem();
+                    CartService.getInstance().addItem(product, added -> {
+                        if (!added) {
+                            new Alert(Alert.AlertType.WARNING,
+                                    "No more \"" + product.getProductName() + "\" is available to add.\n"
+                                            + "It may be sold out or in another terminal's cart.",
+                                    ButtonType.OK).showAndWait();
+                        }
+                        productTable.refresh();
+                        cartTable.refresh();
+                        updateCartTotal();
+                    });
                 }
             });
             return row;
@@ -113,14 +147,16 @@ public class MainDashboardView {
         tableWrapper.setAlignment(Pos.TOP_LEFT);
         tableWrapper.setPadding(new Insets(10));
 
-        // Low Stock Alerts
-        long lowStockCount = allProducts.stream()
-                .filter(p -> p.getStockQuantity() <= p.getMinStockLevel())
-                .count();
+        // Low Stock Alerts (kept current by the tracker as stock changes)
+        ReadOnlyIntegerProperty lowStockCount = LowStockTracker.getInstance().lowStockCountProperty();
 
         Label lowStockLabelText = new Label("Low-Stock Alerts:");
-        Label lowStockLabel = new Label(lowStockCount > 0 ? lowStockCount + " items low" : "None");
+        Label lowStockLabel = new Label();
         lowStockLabel.setStyle("-fx-text-fill: red;");
+        // Bound rather than listened to: the binding observes the tracker weakly, so a dashboard
+        // that has been navigated away from can be collected
+        lowStockLabel.textProperty().bind(
+                Bindings.createStringBinding(() -> lowStockText(lowStockCount.get()), lowStockCount));
         HBox lowStockBox = new HBox(5, lowStockLabelText, lowStockLabel);
         lowStockBox.setAlignment(Pos.CENTER_LEFT);
 
@@ -130,16 +166,32 @@ public class MainDashboardView {
         searchField.setPromptText("Enter product name...");
         Button searchButton = new Button("Search");
 
-        searchButton.setOnAction(e -> {
-            String query = searchField.getText().trim().toLowerCase();
-            filteredProducts.setPredicate(product ->
-                    query.isEmpty() || product.getProductName().toLowerCase().contains(query));
-        });
+        // Build the fuzzy index in the background so the first misspelling does not wait for it
+        AsyncDataService.supply(FuzzyProductMatcher::getInstance);
 
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            String query = newVal.toLowerCase();
-            filteredProducts.setPredicate(product ->
-                    query.isEmpty() || product.getProductName().toLowerCase().contains(query));
+        // Search runs against the prebuilt name index, off the FX thread, once typing pauses.
+        // When nothing contains the query, fall back to typo-tolerant matching.
+        SearchPipeline<Product> searchPipeline = new SearchPipeline<>(Duration.millis(150), query -> {
+            List<Product> matches = searchIndex.get().search(query);
+            if (matches.isEmpty() && query.trim().length() >= FUZZY_MIN_QUERY_LENGTH) {
+                return FuzzyProductMatcher.getInstance().search(query, FUZZY_RESULT_LIMIT);
+            }
+            return matches;
+        }, results -> visibleProducts.setAll(results));
+
+        searchButton.setOnAction(e -> searchPipeline.submitNow(searchField.getText()));
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchPipeline.submit(newVal));
+
+        // Load the catalog and build the name index off the FX thread, then show it,
+        // re-running any search typed while it loaded
+        AsyncDataService.fetch(() -> new ProductSearchIndex(CatalogCache.getInstance().getAllProducts()), index -> {
+            searchIndex.set(index);
+            productPlaceholder.setText("No products found.");
+            if (searchField.getText().isBlank()) {
+                visibleProducts.setAll(index.search(""));
+            } else {
+                searchPipeline.submitNow(searchField.getText());
+            }
         });
 
         HBox searchBox = new HBox(10, searchLabel, searchField, searchButton);
@@ -154,15 +206,18 @@ public class MainDashboardView {
 
         // Navigation Buttons
         Button viewLowStockButton = new Button("🔍 View Low Stock Items");
-        viewLowStockButton.setOnAction(e -> showLowStockWindow(stage, allProducts));
+        viewLowStockButton.setOnAction(e -> showLowStockWindow(stage));
 
         Button categoriesButton = new Button("Go to Categories");
         categoriesButton.setOnAction(e -> MainApplication.setRoot("Categories"));
 
         Button adminButton = new Button("Admin Terminal");
-        adminButton.setOnAction(e -> stage.setScene(AdminTerminalView.createAdminScene(stage)));
+        adminButton.setOnAction(e -> MainApplication.setRoot("AdminTerminal"));
+
+        Button salesReportButton = new Button("📈 Sales Report");
+        salesReportButton.setOnAction(e -> showSalesReportWindow(stage));
 
-        HBox leftControls = new HBox(10, categoriesButton, adminButton, viewLowStockButton);
+        HBox leftControls = new HBox(10, categoriesButton, adminButton, viewLowStockButton, salesReportButton);
         Region spacerBottom = new Region();
         HBox.setHgrow(spacerBottom, Priority.ALWAYS);
         HBox bottomBar = new HBox(10, leftControls, spacerBottom);
@@ -183,8 +238,7 @@ public class MainDashboardView {
      * Updates the cart total label based on current items in the cart.
      */
     private static void updateCartTotal() {
-        double total = CartService.getInstance().getCartTotal();
-        cartTotalLabel.setText(String.format("Total: $%.2f", total));
+        cartTotalLabel.setText("Total: " + Money.format(CartService.getInstance().getSubtotalCents()));
     }
 
     /**
@@ -197,19 +251,22 @@ public class MainDashboardView {
         return column;
     }
 
+    private static String lowStockText(int count) {
+        return count > 0 ? count + " items low" : "None";
+    }
+
     /**
-     * Opens a modal window showing all low-stock items (qty ≤ min stock).
+     * Opens a modal window showing all low-stock items (qty ≤ min stock),
+     * most under minimum first. The list updates live as stock changes.
      */
-    private static void showLowStockWindow(Stage owner, ObservableList<Product> allProducts) {
+    private static void showLowStockWindow(Stage owner) {
         Stage lowStockStage = new Stage();
         lowStockStage.initModality(Modality.WINDOW_MODAL);
         lowStockStage.initOwner(owner);
         lowStockStage.setTitle("Low Stock Items");
 
         TableView<Product> lowStockTable = new TableView<>();
-        ObservableList<Product> lowStockItems = allProducts.filtered(p -> p.getStockQuantity() <= p.getMinStockLevel());
-
-        lowStockTable.setItems(lowStockItems);
+        lowStockTable.setItems(LowStockTracker.getInstance().getLowStockItems());
         lowStockTable.getColumns().addAll(
                 createColumn("Name", "productName", 150),
                 createColumn("Category", "category", 100),
@@ -226,4 +283,80 @@ public class MainDashboardView {
         lowStockStage.setScene(scene);
         lowStockStage.show();
     }
+
+    /**
+     * Opens a window with today's sales by category and hour, the week's top
+     * sellers, and the month's sales by supplier. Each report is read from the
+     * pre-aggregated rollups in the background.
+     */
+    private static void showSalesReportWindow(Stage owner) {
+        Stage reportStage = new Stage();
+        reportStage.initModality(Modality.WINDOW_MODAL);
+        reportStage.initOwner(owner);
+        reportStage.setTitle("Sales Report");
+
+        LocalDate today = LocalDate.now();
+
+        TableView<SalesTotal> hourlyTable = salesTable("Category", true);
+        AsyncDataService.fetch(() -> SalesReportDAO.getCategorySalesByHour(
+                today.atStartOfDay(), today.plusDays(1).atStartOfDay()),
+                rows -> hourlyTable.getItems().setAll(rows));
+
+        TableView<SalesTotal> topSellersTable = salesTable("Product", false);
+        AsyncDataService.fetch(() -> SalesReportDAO.getTopSellers(today.minusDays(6), today, TOP_SELLER_LIMIT),
+                rows -> topSellersTable.getItems().setAll(rows));
+
+        TableView<SalesTotal> supplierTable = salesTable("Supplier", false);
+        AsyncDataService.fetch(() -> SalesReportDAO.getSupplierSales(today.minusDays(29), today),
+                rows -> supplierTable.getItems().setAll(rows));
+
+        TabPane tabs = new TabPane(
+                new Tab("Today by Category", hourlyTable),
+                new Tab("Top Sellers (7 days)", topSellersTable),
+                new Tab("Suppliers (30 days)", supplierTable)
+        );
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+
+        VBox layout = new VBox(10, new Label("Revenue is after discounts, before tax."), tabs);
+        layout.setPadding(new Insets(15));
+
+        Scene scene = new Scene(layout, 600, 500);
+        reportStage.setScene(scene);
+        reportStage.show();
+    }
+
+    /**
+     * Helper to create a sales report table.
+     *
+     * @param labelTitle title for the label column
+     * @param showHour   whether to include the hour column
+     */
+    private static TableView<SalesTotal> salesTable(String labelTitle, boolean showHour) {
+        TableView<SalesTotal> table = new TableView<>();
+
+        if (showHour) {
+            TableColumn<SalesTotal, String> hourColumn = new TableColumn<>("Hour");
+            hourColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(
+                    cellData.getValue().bucketStart().toLocalTime().toString()));
+            hourColumn.setPrefWidth(80);
+            table.getColumns().add(hourColumn);
+        }
+
+        TableColumn<SalesTotal, String> labelColumn = new TableColumn<>(labelTitle);
+        labelColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(cellData.getValue().label()));
+        labelColumn.setPrefWidth(200);
+
+        TableColumn<SalesTotal, Long> unitsColumn = new TableColumn<>("Units");
+        unitsColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().units()));
+        unitsColumn.setPrefWidth(100);
+
+        TableColumn<SalesTotal, String> revenueColumn = new TableColumn<>("Revenue");
+        revenueColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(
+                Money.format(cellData.getValue().revenueCents())));
+        revenueColumn.setPrefWidth(120);
+
+        table.getColumns().addAll(labelColumn, unitsColumn, revenueColumn);
+        table.setPlaceholder(new Label("No sales yet."));
+        return table;
+    }
 }
@@ -0,0 +1,187 @@
+package org.example.reptitrack.views;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import org.example.reptitrack.dao.ProductColumn;
+import org.example.reptitrack.dao.ProductDAO;
+import org.example.reptitrack.models.Product;
+import org.example.reptitrack.services.AsyncDataService;
+import org.example.reptitrack.utils.DatabaseConfig;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Feeds a product table one page at a time as the user scrolls.
+ * <p>
+ * Only the first page is fetched up front, so the table paints quickly
+ * however large the listing is. Reaching the bottom of the table fetches the
+ * next page with a keyset query on product_id; reaching the top fetches the
+ * previous one. The table never holds more than {@code MAX_PAGES} pages:
+ * rows scrolled far out of view are dropped and fetched again if the user
+ * scrolls back to them.
+ * </p>
+ * <p>
+ * A page that fails to load changes nothing, and the next scroll to that
+ * edge tries again. Only the Categories view pages its tables this way; the
+ * Admin Terminal and the dashboard still read whole listings through
+ * {@code CatalogCache}, so their memory grows with the catalog.
+ * </p>
+ *
+ * Must be created and driven from the JavaFX Application Thread.
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+class ProductPager {
+
+    private static final int PAGE_SIZE = DatabaseConfig.getInt("UI_PAGE_SIZE", 100);
+    private static final int MAX_PAGES = DatabaseConfig.getInt("UI_MAX_PAGES", 5);
+
+    // How close to either end of the scroll bar (0.0–1.0) triggers a fetch
+    private static final double EDGE = 0.05;
+
+    private final TableView<Product> table;
+    private final ObservableList<Product> rows;
+    private final String category;
+    private final Set<ProductColumn> columns;
+    private final Label placeholder;
+
+    private boolean loading;
+    private boolean moreAbove;
+    private boolean moreBelow;
+
+    /**
+     * Creates a pager for a table. Nothing is fetched until {@link #start()}.
+     *
+     * @param table       the table to fill
+     * @param category    the category to list, or null for all products
+     * @param columns     the columns the table renders; only these are fetched
+     * @param placeholder the table's placeholder label
+     */
+    ProductPager(TableView<Product> table, String category, Set<ProductColumn> columns, Label placeholder) {
+        this.table = table;
+        this.rows = table.getItems();
+        this.category = category;
+        this.columns = columns;
+        this.placeholder = placeholder;
+
+        // Rows are windowed in product_id order; sorting a partial window would mislead
+        table.getColumns().forEach(column -> column.setSortable(false));
+
+        // The scroll bar only exists once the table has a skin
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> watchScrollBar());
+    }
+
+    /**
+     * Fetches the first page.
+     *
+     * @param onFailed runs on the FX thread if the first page could not be fetched
+     */
+    void start(Runnable onFailed) {
+        String label = category == null ? "products" : category.toLowerCase();
+        placeholder.setText("Loading " + label + "...");
+
+        fetchPage(() -> ProductDAO.getProductsPageAfter(category, columns, 0, PAGE_SIZE), page -> {
+            rows.setAll(page);
+            moreAbove = false;
+            moreBelow = page.size() == PAGE_SIZE;
+            placeholder.setText("No " + label + " found.");
+        }, onFailed);
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Scrolling
+    // ─────────────────────────────────────────────────────────────
+
+    private void watchScrollBar() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, value) -> {
+                    double position = value.doubleValue() / Math.max(bar.getMax(), 1e-9);
+                    if (position >= 1 - EDGE) {
+                        loadBelow();
+                    } else if (position <= EDGE) {
+                        loadAbove();
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private void loadBelow() {
+        if (loading || !moreBelow || rows.isEmpty()) {
+            return;
+        }
+        int lastId = rows.get(rows.size() - 1).getId();
+
+        fetchPage(() -> ProductDAO.getProductsPageAfter(category, columns, lastId, PAGE_SIZE), page -> {
+            int lastShown = rows.size() - 1;
+            rows.addAll(page);
+            moreBelow = page.size() == PAGE_SIZE;
+
+            // Drop the oldest rows above the view to stay within the window,
+            // keeping the row the user had reached in view
+            int overflow = rows.size() - PAGE_SIZE * MAX_PAGES;
+            if (overflow > 0) {
+                rows.remove(0, overflow);
+                moreAbove = true;
+                table.scrollTo(Math.max(0, lastShown - overflow));
+            }
+        }, () -> {});
+    }
+
+    private void loadAbove() {
+        if (loading || !moreAbove || rows.isEmpty()) {
+            return;
+        }
+        int firstId = rows.get(0).getId();
+
+        fetchPage(() -> ProductDAO.getProductsPageBefore(category, columns, firstId, PAGE_SIZE), page -> {
+            rows.addAll(0, page);
+            moreAbove = page.size() == PAGE_SIZE;
+
+            // Drop rows below the view to stay within the window
+            int overflow = rows.size() - PAGE_SIZE * MAX_PAGES;
+            if (overflow > 0) {
+                rows.remove(rows.size() - overflow, rows.size());
+                moreBelow = true;
+            }
+            // Rows were inserted above the view; keep the row the user had reached in view
+            table.scrollTo(page.size());
+        }, () -> {});
+    }
+
+    /**
+     * Fetches a page in the background, with {@link #loading} set until it
+     * has been applied, has failed, or was cancelled by navigation.
+     *
+     * @param query    the page query
+     * @param onPage   applies the page on the FX thread
+     * @param onFailed runs on the FX thread if the query failed
+     */
+    private void fetchPage(Callable<Optional<List<Product>>> query, Consumer<List<Product>> onPage, Runnable onFailed) {
+        loading = true;
+
+        AsyncDataService.fetch(query, page -> {
+            loading = false;
+            if (page.isPresent()) {
+                onPage.accept(page.get());
+            } else {
+                onFailed.run();
+            }
+        }).exceptionally(error -> {
+            Platform.runLater(() -> loading = false);
+            return null;
+        });
+    }
+}
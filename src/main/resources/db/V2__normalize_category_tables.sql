@@ -0,0 +1,49 @@
+-- ─────────────────────────────────────────────────────────────
+-- ReptiTrack schema migration V2: normalize the category tables
+-- ─────────────────────────────────────────────────────────────
+--
+-- Animals, Enclosures, Feeders and Supplies used to duplicate every shared
+-- product column that already lives in Products. After this migration they
+-- keep only their own key and product_id, and all shared fields are read
+-- through the existing JOINs on Products.
+--
+-- Rollout:
+--   1. Stop all terminals.
+--   2. Run this script once against the database.
+--   3. Set DB_SCHEMA_MODE=normalized in each terminal's .env file.
+--   4. Restart the terminals.
+--
+-- Products is already the source of truth for every read, so no data is
+-- copied before the duplicate columns are dropped.
+
+ALTER TABLE Animals
+    DROP COLUMN product_name,
+    DROP COLUMN category,
+    DROP COLUMN stock_quantity,
+    DROP COLUMN supplier,
+    DROP COLUMN price,
+    DROP COLUMN min_stock_level;
+
+ALTER TABLE Enclosures
+    DROP COLUMN product_name,
+    DROP COLUMN category,
+    DROP COLUMN stock_quantity,
+    DROP COLUMN supplier,
+    DROP COLUMN price,
+    DROP COLUMN min_stock_level;
+
+ALTER TABLE Feeders
+    DROP COLUMN product_name,
+    DROP COLUMN category,
+    DROP COLUMN stock_quantity,
+    DROP COLUMN supplier,
+    DROP COLUMN price,
+    DROP COLUMN min_stock_level;
+
+ALTER TABLE Supplies
+    DROP COLUMN product_name,
+    DROP COLUMN category,
+    DROP COLUMN stock_quantity,
+    DROP COLUMN supplier,
+    DROP COLUMN price,
+    DROP COLUMN min_stock_level;
@@ -0,0 +1,44 @@
+-- ─────────────────────────────────────────────────────────────
+-- ReptiTrack schema migration V3: sales ledger
+-- ─────────────────────────────────────────────────────────────
+--
+-- Every completed sale is recorded in Sales, with one SaleLines row per
+-- item sold. Terminals write these in the background (see SalesLedger);
+-- sale_id is generated at the till so a retried batch never duplicates a sale.
+--
+-- sold_at is the till's local wall-clock time, and amounts are whole cents.
+-- Product name, category and supplier are copied onto each line, so the
+-- ledger stays intact when a product is later edited or deleted; for the
+-- same reason product_id is not a foreign key.
+--
+-- Rollout: run once against the database before upgrading the terminals.
+-- Terminals that cannot reach the tables keep sales in their local spill
+-- file until they can.
+
+CREATE TABLE IF NOT EXISTS Sales (
+    sale_id         CHAR(36)     NOT NULL,
+    sold_at         DATETIME(3)  NOT NULL,
+    payment_method  VARCHAR(16)  NOT NULL,
+    subtotal_cents  BIGINT       NOT NULL,
+    discount_cents  BIGINT       NOT NULL,
+    tax_cents       BIGINT       NOT NULL,
+    total_cents     BIGINT       NOT NULL,
+    PRIMARY KEY (sale_id),
+    KEY idx_sales_sold_at (sold_at)
+);
+
+CREATE TABLE IF NOT EXISTS SaleLines (
+    sale_id           CHAR(36)      NOT NULL,
+    line_no           INT           NOT NULL,
+    product_id        INT           NOT NULL,
+    product_name      VARCHAR(255)  NOT NULL,
+    category          VARCHAR(50)   NOT NULL,
+    supplier          VARCHAR(255)  NOT NULL,
+    quantity          INT           NOT NULL,
+    unit_price_cents  BIGINT        NOT NULL,
+    discount_cents    BIGINT        NOT NULL,
+    tax_cents         BIGINT        NOT NULL,
+    PRIMARY KEY (sale_id, line_no),
+    KEY idx_salelines_product (product_id),
+    CONSTRAINT fk_salelines_sale FOREIGN KEY (sale_id) REFERENCES Sales (sale_id)
+);
@@ -0,0 +1,62 @@
+-- ─────────────────────────────────────────────────────────────
+-- ReptiTrack schema migration V4: pre-aggregated sales rollups
+-- ─────────────────────────────────────────────────────────────
+--
+-- SalesHourly and SalesDaily hold running unit and revenue totals per
+-- product per hour and per day. They are updated in the same transaction
+-- that writes a batch of sales to the ledger (see SaleDAO), so reports read
+-- one row per bucket instead of scanning every sale line. A sale's bucket
+-- is its stored Sales.sold_at truncated to the hour or day, for live sales
+-- and for the backfill below alike.
+--
+-- Revenue is in whole cents, after discounts and before tax. Category and
+-- product name are copied from the most recent sale of the product.
+-- SalesDaily is also keyed by the supplier on the sale lines, so units sold
+-- before and after a product's supplier changes stay with the supplier that
+-- sold them, even within one day.
+--
+-- Rollout: run once with the terminals stopped. The INSERT ... SELECT
+-- statements below build the rollups from sales already in the ledger.
+
+CREATE TABLE IF NOT EXISTS SalesHourly (
+    hour_start     DATETIME     NOT NULL,
+    product_id     INT          NOT NULL,
+    category       VARCHAR(50)  NOT NULL,
+    units          BIGINT       NOT NULL,
+    revenue_cents  BIGINT       NOT NULL,
+    PRIMARY KEY (hour_start, product_id),
+    KEY idx_saleshourly_category (category, hour_start)
+);
+
+CREATE TABLE IF NOT EXISTS SalesDaily (
+    sale_date      DATE          NOT NULL,
+    product_id     INT           NOT NULL,
+    product_name   VARCHAR(255)  NOT NULL,
+    category       VARCHAR(50)   NOT NULL,
+    supplier       VARCHAR(255)  NOT NULL,
+    units          BIGINT        NOT NULL,
+    revenue_cents  BIGINT        NOT NULL,
+    PRIMARY KEY (sale_date, product_id, supplier),
+    KEY idx_salesdaily_product (product_id)
+);
+
+-- ─────────────────────────────────────────────────────────────
+-- Backfill from the ledger
+-- ─────────────────────────────────────────────────────────────
+
+DELETE FROM SalesHourly;
+DELETE FROM SalesDaily;
+
+INSERT INTO SalesHourly (hour_start, product_id, category, units, revenue_cents)
+SELECT DATE_FORMAT(s.sold_at, '%Y-%m-%d %H:00:00'), l.product_id, MAX(l.category),
+       SUM(l.quantity), SUM(l.quantity * l.unit_price_cents - l.discount_cents)
+FROM Sales s
+JOIN SaleLines l ON l.sale_id = s.sale_id
+GROUP BY DATE_FORMAT(s.sold_at, '%Y-%m-%d %H:00:00'), l.product_id;
+
+INSERT INTO SalesDaily (sale_date, product_id, product_name, category, supplier, units, revenue_cents)
+SELECT DATE(s.sold_at), l.product_id, MAX(l.product_name), MAX(l.category), l.supplier,
+       SUM(l.quantity), SUM(l.quantity * l.unit_price_cents - l.discount_cents)
+FROM Sales s
+JOIN SaleLines l ON l.sale_id = s.sale_id
+GROUP BY DATE(s.sold_at), l.product_id, l.supplier;
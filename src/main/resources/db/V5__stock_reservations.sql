@@ -0,0 +1,33 @@
+-- ─────────────────────────────────────────────────────────────
+-- ReptiTrack schema migration V5: stock reservations
+-- ─────────────────────────────────────────────────────────────
+--
+-- Units in a terminal's cart are held in StockReservations, one row per
+-- terminal and product. Products.stock_quantity stays the number of units
+-- on hand: reserving and releasing only write StockReservations, and only a
+-- completed sale decrements stock_quantity (using up the terminal's rows).
+-- Units available to sell are stock_quantity less the live (unexpired)
+-- reservations of every terminal.
+--
+-- Terminals refresh expires_at while they run. Rows whose terminal stopped
+-- expire after RESERVATION_TTL_SECONDS, stop counting against availability,
+-- and are deleted by whichever terminal sweeps next (see
+-- ReservationDAO.releaseExpired).
+--
+-- product_id is deliberately not a foreign key: the shared lock it takes on
+-- the Products row would make two terminals reserving the same product
+-- deadlock when each then locks that row for update.
+--
+-- Rollout: run once, then upgrade the terminals. Each terminal keeps its ID
+-- in terminal.id (or TERMINAL_ID in .env) so it can release its own
+-- reservations on restart instead of waiting for them to expire.
+
+CREATE TABLE IF NOT EXISTS StockReservations (
+    terminal_id  VARCHAR(64)  NOT NULL,
+    product_id   INT          NOT NULL,
+    quantity     INT          NOT NULL,
+    expires_at   DATETIME(3)  NOT NULL,
+    PRIMARY KEY (terminal_id, product_id),
+    KEY idx_reservations_expires (expires_at),
+    KEY idx_reservations_product (product_id)
+);
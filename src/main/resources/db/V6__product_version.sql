@@ -0,0 +1,20 @@
+-- ─────────────────────────────────────────────────────────────
+-- ReptiTrack schema migration V6: product row versions
+-- ─────────────────────────────────────────────────────────────
+--
+-- Every write to a Products row now increments version: admin edits and
+-- sales alike. Stock reservations do not write Products, so they leave it
+-- unchanged. Edits are saved with
+-- UPDATE ... WHERE product_id = ? AND version = ?, so an edit made from
+-- stale values (for example, a stock level read before a till sold one)
+-- writes nothing and the admin is asked to merge or reload, instead of
+-- silently undoing the other change.
+--
+-- Only Products carries a version. Under the legacy schema the category
+-- tables are written in the same transaction, only after the Products row
+-- was updated.
+--
+-- Rollout: run once, then upgrade the terminals. Existing rows start at 0.
+
+ALTER TABLE Products
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
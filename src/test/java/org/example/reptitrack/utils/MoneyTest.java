@@ -0,0 +1,126 @@
+package org.example.reptitrack.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link Money}.
+ *
+ * @author Jarrod
+ * @since 2025-04-06
+ */
+class MoneyTest {
+
+    // ─────────────────────────────────────────────────────────────
+    // Conversion
+    // ─────────────────────────────────────────────────────────────
+
+    @Test
+    void parseReadsWholeAndFractionalDollars() {
+        assertEquals(2000, Money.parse("20"));
+        assertEquals(1995, Money.parse("19.95"));
+        assertEquals(550, Money.parse(" $5.5 "));
+        assertEquals(0, Money.parse("0"));
+    }
+
+    @Test
+    void parseRoundsFractionsOfACentHalfUp() {
+        assertEquals(1, Money.parse("0.005"));
+        assertEquals(0, Money.parse("0.004"));
+        assertEquals(1000, Money.parse("9.995"));
+    }
+
+    @Test
+    void parseRejectsInvalidAmounts() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1e30"));
+    }
+
+    @Test
+    void ofDollarsRoundsToNearestCent() {
+        assertEquals(1999, Money.ofDollars(19.99));
+        assertEquals(30, Money.ofDollars(0.1 + 0.2));
+    }
+
+    @Test
+    void formatShowsDollarsAndTwoDigitCents() {
+        assertEquals("$1234.56", Money.format(123456));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("$0.00", Money.format(0));
+        assertEquals("-$2.50", Money.format(-250));
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Arithmetic
+    // ─────────────────────────────────────────────────────────────
+
+    @Test
+    void percentOfAppliesBasisPoints() {
+        assertEquals(130, Money.percentOf(1000, 1300));
+        assertEquals(0, Money.percentOf(0, 1300));
+        assertEquals(1000, Money.percentOf(1000, 10_000));
+    }
+
+    @Test
+    void percentOfRoundsHalfAwayFromZero() {
+        // 0.5 cent rounds up, -0.5 cent rounds down
+        assertEquals(1, Money.percentOf(5, 1000));
+        assertEquals(-1, Money.percentOf(-5, 1000));
+        assertEquals(1, Money.percentOf(1, 5000));
+
+        // 1.95 cents and -1.95 cents
+        assertEquals(2, Money.percentOf(15, 1300));
+        assertEquals(-2, Money.percentOf(-15, 1300));
+
+        // Below half rounds towards zero
+        assertEquals(0, Money.percentOf(4, 1000));
+        assertEquals(0, Money.percentOf(-4, 1000));
+    }
+
+    @Test
+    void timesRejectsOverflow() {
+        assertEquals(5997, Money.times(1999, 3));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+
+    @Test
+    void lineTotalsMatchExactDecimalArithmetic() {
+        double[] prices = {19.99, 0.10, 4.35, 129.95, 0.05, 7.77};
+        int[] quantities = {3, 7, 1, 2, 11, 5};
+
+        long centsSubtotal = 0;
+        BigDecimal exactSubtotal = BigDecimal.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            centsSubtotal += Money.times(Money.ofDollars(prices[i]), quantities[i]);
+            exactSubtotal = exactSubtotal.add(BigDecimal.valueOf(prices[i]).multiply(BigDecimal.valueOf(quantities[i])));
+        }
+
+        assertEquals(exactSubtotal.movePointRight(2).longValueExact(), centsSubtotal);
+    }
+
+    @Test
+    void roundToNickelRoundsOneAndTwoDownThreeAndFourUp() {
+        assertEquals(0, Money.roundToNickel(0));
+        assertEquals(0, Money.roundToNickel(1));
+        assertEquals(0, Money.roundToNickel(2));
+        assertEquals(5, Money.roundToNickel(3));
+        assertEquals(5, Money.roundToNickel(4));
+        assertEquals(5, Money.roundToNickel(5));
+        assertEquals(5, Money.roundToNickel(7));
+        assertEquals(10, Money.roundToNickel(8));
+        assertEquals(1995, Money.roundToNickel(1997));
+        assertEquals(2000, Money.roundToNickel(1999));
+    }
+
+    @Test
+    void roundToNickelIsSymmetricForNegativeAmounts() {
+        assertEquals(0, Money.roundToNickel(-2));
+        assertEquals(-5, Money.roundToNickel(-3));
+        assertEquals(-10, Money.roundToNickel(-8));
+    }
+}